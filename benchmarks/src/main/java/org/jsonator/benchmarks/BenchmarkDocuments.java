@@ -0,0 +1,68 @@
+package org.jsonator.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Deterministic JSON documents shared by the benchmarks.
+ */
+final class BenchmarkDocuments {
+
+    private BenchmarkDocuments() {
+    }
+
+    /**
+     * Returns an object holding an array of {@code count} records mixing
+     * strings, numbers, literals and nested containers.
+     */
+    static String records(int count) {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("{\"records\": [\n");
+        for (int i = 0; i < count; ++i) {
+            if (i != 0) {
+                sb.append(",\n");
+            }
+
+            sb.append("  {\"id\": ").append(i)
+                    .append(", \"name\": \"record-").append(random.nextInt(1_000_000)).append('"')
+                    .append(", \"status\": \"").append(random.nextBoolean() ? "active" : "inactive").append('"')
+                    .append(", \"score\": ").append(random.nextDouble() * 1000)
+                    .append(", \"enabled\": ").append(random.nextBoolean())
+                    .append(", \"parent\": null")
+                    .append(", \"tags\": [\"alpha\", \"beta\", \"gamma\"]")
+                    .append(", \"position\": {\"x\": ").append(random.nextInt(4096))
+                    .append(", \"y\": ").append(random.nextInt(4096)).append("}}");
+        }
+        sb.append("\n]}");
+
+        return sb.toString();
+    }
+
+    /**
+     * Returns an object holding an array of {@code count} telemetry samples made
+     * mostly of integers and doubles.
+     */
+    static String telemetry(int count) {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("{\"samples\": [\n");
+        for (int i = 0; i < count; ++i) {
+            if (i != 0) {
+                sb.append(",\n");
+            }
+
+            sb.append("  {\"t\": ").append(1_700_000_000_000L + i * 250L)
+                    .append(", \"cpu\": ").append(random.nextDouble() * 100)
+                    .append(", \"mem\": ").append(random.nextInt(1 << 30))
+                    .append(", \"lat\": [").append(random.nextGaussian() * 12.5).append(", ")
+                    .append(random.nextGaussian() * 40.25).append(", ")
+                    .append(random.nextDouble() * 1e-3).append(']')
+                    .append(", \"temp\": ").append(-20 + random.nextInt(10_000) / 100.0).append('}');
+        }
+        sb.append("\n]}");
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package org.jsonator.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.jsonator.JsonObject;
+import org.jsonator.JsonReaderPool;
+import org.jsonator.JsonSerializer;
+import org.jsonator.JsonSerializerOptions;
+import org.jsonator.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Deserializes the record document to POJOs, straight from the token stream,
+ * through a pooled reader and through a {@code JsonObject} tree.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeserializeBenchmark {
+
+    @Param({ "1", "1000" })
+    public int records;
+
+    private byte[] jsonBytes;
+    private TypeToken<RecordDocument> type;
+    private JsonSerializerOptions options;
+    private JsonReaderPool pool;
+
+    @Setup
+    public void setup() {
+        jsonBytes = BenchmarkDocuments.records(records).getBytes(StandardCharsets.UTF_8);
+        type = TypeToken.get(RecordDocument.class);
+        options = new JsonSerializerOptions();
+        pool = new JsonReaderPool(4);
+    }
+
+    @Benchmark
+    public RecordDocument deserializeRecords() {
+        return JsonSerializer.deserialize(jsonBytes, type, options);
+    }
+
+    @Benchmark
+    public RecordDocument deserializeRecordsPooled() {
+        return pool.deserialize(jsonBytes, type, options);
+    }
+
+    @Benchmark
+    public Object deserializeRecordsFromTree() {
+        return options.getConverter(type).deserialize(new JsonObject().fromJson(jsonBytes), type, options);
+    }
+}
+
+class RecordDocument {
+    ArrayList<Record> records;
+}
+
+class Record {
+    int id;
+    String name;
+    String status;
+    double score;
+    boolean enabled;
+    Object parent;
+    ArrayList<String> tags;
+    Position position;
+}
+
+class Position {
+    int x;
+    int y;
+}
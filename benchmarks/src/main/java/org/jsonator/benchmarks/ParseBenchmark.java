@@ -0,0 +1,91 @@
+package org.jsonator.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.jsonator.JsonArray;
+import org.jsonator.JsonElement;
+import org.jsonator.JsonObject;
+import org.jsonator.JsonProjection;
+import org.jsonator.JsonPushParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses a mixed record document to a {@code JsonObject}, eagerly or lazily, and
+ * a number heavy telemetry document. The record document is also pushed in
+ * chunks through a {@code JsonPushParser}, and projected down to the record
+ * ids.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    @Param({ "1000" })
+    public int records;
+
+    private String json;
+    private byte[] jsonBytes;
+    private byte[] telemetryBytes;
+    private JsonProjection recordIds;
+
+    @Setup
+    public void setup() {
+        json = BenchmarkDocuments.records(records);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        telemetryBytes = BenchmarkDocuments.telemetry(records).getBytes(StandardCharsets.UTF_8);
+        recordIds = JsonProjection.of("records[*].id");
+    }
+
+    @Benchmark
+    public JsonObject parseString() {
+        return new JsonObject(json);
+    }
+
+    @Benchmark
+    public JsonObject parseBytes() {
+        return new JsonObject().fromJson(jsonBytes);
+    }
+
+    @Benchmark
+    public JsonElement pushParseChunks() {
+        JsonPushParser parser = new JsonPushParser();
+
+        // Network sized chunks
+        for (int i = 0; i < jsonBytes.length; i += 1460) {
+            parser.feed(ByteBuffer.wrap(jsonBytes, i, Math.min(1460, jsonBytes.length - i)));
+        }
+
+        return parser.finish();
+    }
+
+    @Benchmark
+    public JsonObject parseTelemetry() {
+        return new JsonObject().fromJson(telemetryBytes);
+    }
+
+    @Benchmark
+    public JsonElement lazyLastRecordId() {
+        JsonArray array = JsonObject.lazy(jsonBytes).get("records").getAsJsonArray();
+        return array.get(array.size() - 1).getAsJsonObject().get("id");
+    }
+
+    @Benchmark
+    public JsonObject projectRecordIds() {
+        return new JsonObject().fromJson(jsonBytes, recordIds);
+    }
+}
@@ -0,0 +1,115 @@
+package org.jsonator.benchmarks;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jsonator.JsonObject;
+import org.jsonator.JsonSerializer;
+import org.jsonator.JsonSerializerOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serializes the record document from POJOs, compact and indented, to a
+ * string, streamed to a {@code Writer} and encoded to UTF-8 bytes, and
+ * number-dense arrays of longs and doubles.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializeBenchmark {
+
+    @Param({ "1000" })
+    public int records;
+
+    private RecordDocument document;
+    private JsonObject dom;
+    private long[] longs;
+    private double[] doubles;
+    private JsonSerializerOptions options;
+    private JsonSerializerOptions indentedOptions;
+    private JsonSerializerOptions parallelOptions;
+
+    @Setup
+    public void setup() {
+        options = new JsonSerializerOptions();
+        indentedOptions = new JsonSerializerOptions();
+        indentedOptions.WriteIndented = true;
+        parallelOptions = new JsonSerializerOptions();
+        parallelOptions.ParallelSerialization = true;
+        document = JsonSerializer.deserialize(BenchmarkDocuments.records(records), RecordDocument.class, options);
+        dom = new JsonObject(BenchmarkDocuments.records(records));
+
+        Random random = new Random(42);
+        longs = new long[100 * records];
+        doubles = new double[100 * records];
+        for (int i = 0; i < longs.length; ++i) {
+            longs[i] = random.nextLong() >> random.nextInt(64);
+            doubles[i] = (i % 2 == 0) ? random.nextDouble() * 1000 : random.nextInt(100000) / 100.0;
+        }
+    }
+
+    @Benchmark
+    public String serializeRecords() {
+        return JsonSerializer.serialize(document, options);
+    }
+
+    @Benchmark
+    public String serializeRecordsIndented() {
+        return JsonSerializer.serialize(document, indentedOptions);
+    }
+
+    @Benchmark
+    public void serializeRecordsToWriter() {
+        JsonSerializer.serialize(document, Writer.nullWriter(), options);
+    }
+
+    @Benchmark
+    public byte[] serializeRecordsToBytes() {
+        return JsonSerializer.serializeToBytes(document, options);
+    }
+
+    @Benchmark
+    public byte[] serializeRecordsToStringBytes() {
+        return JsonSerializer.serialize(document, options).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] serializeLongs() {
+        return JsonSerializer.serializeToBytes(longs, options);
+    }
+
+    @Benchmark
+    public byte[] serializeDoubles() {
+        return JsonSerializer.serializeToBytes(doubles, options);
+    }
+
+    @Benchmark
+    public byte[] serializeLongsParallel() {
+        return JsonSerializer.serializeToBytes(longs, parallelOptions);
+    }
+
+    @Benchmark
+    public byte[] serializeDoublesParallel() {
+        return JsonSerializer.serializeToBytes(doubles, parallelOptions);
+    }
+
+    @Benchmark
+    public String serializeDom() {
+        return dom.toJson();
+    }
+}
@@ -20,15 +20,15 @@
 package org.jsonator.Converters;
 
 import java.lang.reflect.Array;
-import java.util.Queue;
-
+import java.util.ArrayList;
 import org.jsonator.JsonArray;
 import org.jsonator.JsonConverter;
 import org.jsonator.JsonElement;
+import org.jsonator.JsonReader;
 import org.jsonator.JsonException;
 import org.jsonator.JsonSerializerOptions;
-import org.jsonator.JsonToken;
 import org.jsonator.JsonTokenType;
+import org.jsonator.JsonWriter;
 import org.jsonator.TypeToken;
 
 public class JsonConverterArray extends JsonConverter<Array> {
@@ -48,26 +48,76 @@ public class JsonConverterArray extends JsonConverter<Array> {
     }
 
     @Override
-    public void serialize(Queue<JsonToken> tokens, Object value, JsonSerializerOptions options) {
-        int length = Array.getLength(value);
-
-        tokens.add(new JsonToken("[", JsonTokenType.ARRAY_START));
-        for (int i = 0; i < length; ++i) {
-            if (i != 0) {
-                tokens.add(new JsonToken(",", JsonTokenType.COMMA));
-            }
+    public void serialize(JsonWriter writer, Object value, JsonSerializerOptions options) {
+        writer.beginArray();
+        if (!writeNumbers(writer, value, options)) {
+            writer.values(Array.getLength(value), (w, from, to) -> {
+                for (int i = from; i < to; ++i) {
+                    Object v = Array.get(value, i);
+                    TypeToken<?> vType = TypeToken.get(v.getClass());
+
+                    if (!options.hasConverter(vType)) {
+                        throw new JsonException("'%s' can not serialize".formatted(v.getClass().getName()));
+                    }
+
+                    JsonConverter<?> converter = options.getConverter(vType);
+                    converter.serialize(w, v, options);
+                }
+            });
+        }
+        writer.endArray();
+    }
 
-            Object v = Array.get(value, i);
-            TypeToken<?> vType = TypeToken.get(v.getClass());
+    /**
+     * Writes the elements of a primitive number array without boxing them, if
+     * its element type is serialized by the built-in converter.
+     *
+     * @return false if the elements are left to their converter
+     */
+    private static boolean writeNumbers(JsonWriter writer, Object value, JsonSerializerOptions options) {
+        Class<?> elementType = value.getClass().getComponentType();
 
-            if (!options.hasConverter(vType)) {
-                throw new JsonException("'%s' can not serialize".formatted(v.getClass().getName()));
-            }
+        if (!elementType.isPrimitive() || !options.hasConverter(TypeToken.get(elementType))) {
+            return false;
+        }
 
-            JsonConverter<?> converter = options.getConverter(vType);
-            converter.serialize(tokens, v, options);
+        Class<?> converterType = options.getConverter(TypeToken.get(elementType)).getClass();
+
+        if (value instanceof long[] a && converterType == JsonConverterLong.class) {
+            writer.values(a.length, (w, from, to) -> {
+                for (int i = from; i < to; ++i) {
+                    w.value(a[i]);
+                }
+            });
+        } else if (value instanceof int[] a && converterType == JsonConverterInteger.class) {
+            writer.values(a.length, (w, from, to) -> {
+                for (int i = from; i < to; ++i) {
+                    w.value(a[i]);
+                }
+            });
+        } else if (value instanceof double[] a && converterType == JsonConverterDouble.class) {
+            writer.values(a.length, (w, from, to) -> {
+                for (int i = from; i < to; ++i) {
+                    w.value(a[i]);
+                }
+            });
+        } else if (value instanceof float[] a && converterType == JsonConverterFloat.class) {
+            writer.values(a.length, (w, from, to) -> {
+                for (int i = from; i < to; ++i) {
+                    w.value(a[i]);
+                }
+            });
+        } else if (value instanceof short[] a && converterType == JsonConverterShort.class) {
+            writer.values(a.length, (w, from, to) -> {
+                for (int i = from; i < to; ++i) {
+                    w.value(a[i]);
+                }
+            });
+        } else {
+            return false;
         }
-        tokens.add(new JsonToken("]", JsonTokenType.ARRAY_END));
+
+        return true;
     }
 
     @Override
@@ -103,4 +153,39 @@ public class JsonConverterArray extends JsonConverter<Array> {
 
         return array;
     }
+
+    @Override
+    public Object deserialize(JsonReader reader, TypeToken<?> typeToConvert, JsonSerializerOptions options) {
+        Class<?> typeClass = typeToConvert.getRawType();
+
+        if (!typeClass.isArray()) {
+            throw new IllegalArgumentException("'%s' type is not an array".formatted(typeClass.getName()));
+        }
+
+        if (reader.peek() != JsonTokenType.ARRAY_START) {
+            throw new IllegalArgumentException(
+                    "JSON value is not a '%s'".formatted(getMyType().getRawType().getTypeName()));
+        }
+
+        TypeToken<?> componentType = TypeToken.get(typeClass.getComponentType());
+        ArrayList<Object> values = new ArrayList<>();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (!options.hasConverter(componentType)) {
+                throw new JsonException("'%s' can not deserialize".formatted(componentType.getType().getTypeName()));
+            }
+
+            JsonConverter<?> converter = options.getConverter(componentType);
+            values.add(converter.deserialize(reader, componentType, options));
+        }
+        reader.endArray();
+
+        Object array = Array.newInstance(typeClass.getComponentType(), values.size());
+        for (int i = 0; i < values.size(); ++i) {
+            Array.set(array, i, values.get(i));
+        }
+
+        return array;
+    }
 }
@@ -19,13 +19,12 @@
 
 package org.jsonator.Converters;
 
-import java.util.Queue;
-
 import org.jsonator.JsonConverter;
 import org.jsonator.JsonElement;
+import org.jsonator.JsonReader;
 import org.jsonator.JsonSerializerOptions;
-import org.jsonator.JsonToken;
 import org.jsonator.JsonTokenType;
+import org.jsonator.JsonWriter;
 import org.jsonator.TypeToken;
 
 public class JsonConverterCharacter extends JsonConverter<Character> {
@@ -36,8 +35,8 @@ public class JsonConverterCharacter extends JsonConverter<Character> {
     }
 
     @Override
-    public void serialize(Queue<JsonToken> tokens, Object value, JsonSerializerOptions options) {
-        tokens.add(new JsonToken('"' + value.toString() + '"', JsonTokenType.STRING));
+    public void serialize(JsonWriter writer, Object value, JsonSerializerOptions options) {
+        writer.value(value.toString());
     }
 
     @Override
@@ -49,4 +48,16 @@ public class JsonConverterCharacter extends JsonConverter<Character> {
 
         return element.getAsJsonPrimitive().getAsCharacter();
     }
+
+    @Override
+    public Object deserialize(JsonReader reader, TypeToken<?> typeToConvert, JsonSerializerOptions options) {
+        String s = (reader.peek() == JsonTokenType.STRING) ? reader.nextString() : null;
+
+        if (s == null || s.length() != 1) {
+            throw new IllegalArgumentException(
+                    "JSON value is not a '%s'".formatted(getMyType().getType().getTypeName()));
+        }
+
+        return s.charAt(0);
+    }
 }
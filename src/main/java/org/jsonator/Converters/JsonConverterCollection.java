@@ -24,15 +24,16 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Collection;
-import java.util.Queue;
-
+import java.util.List;
+import java.util.RandomAccess;
 import org.jsonator.JsonArray;
 import org.jsonator.JsonConverter;
 import org.jsonator.JsonElement;
+import org.jsonator.JsonReader;
 import org.jsonator.JsonException;
 import org.jsonator.JsonSerializerOptions;
-import org.jsonator.JsonToken;
 import org.jsonator.JsonTokenType;
+import org.jsonator.JsonWriter;
 import org.jsonator.TypeToken;
 
 public abstract class JsonConverterCollection<T> extends JsonConverter<Collection<T>> {
@@ -78,27 +79,41 @@ public abstract class JsonConverterCollection<T> extends JsonConverter<Collectio
     }
 
     @Override
-    public void serialize(Queue<JsonToken> tokens, Object value, JsonSerializerOptions options) {
-        boolean printComma = false;
+    public void serialize(JsonWriter writer, Object value, JsonSerializerOptions options) {
         Collection<?> c = (Collection<?>) value;
 
-        tokens.add(new JsonToken("[", JsonTokenType.ARRAY_START));
-        for (Object v : c) {
-            if (printComma) {
-                tokens.add(new JsonToken(",", JsonTokenType.COMMA));
+        writer.beginArray();
+        if (c instanceof List<?> list && c instanceof RandomAccess) {
+            writer.values(list.size(), (w, from, to) -> {
+                for (int i = from; i < to; ++i) {
+                    serializeValue(w, list.get(i), options);
+                }
+            });
+        } else if (options.ParallelSerialization && c.size() >= options.ParallelSerializationThreshold) {
+            // Values are written by index in parallel
+            Object[] values = c.toArray();
+            writer.values(values.length, (w, from, to) -> {
+                for (int i = from; i < to; ++i) {
+                    serializeValue(w, values[i], options);
+                }
+            });
+        } else {
+            for (Object v : c) {
+                serializeValue(writer, v, options);
             }
+        }
+        writer.endArray();
+    }
 
-            TypeToken<?> valueType = TypeToken.get(v.getClass());
-
-            if (!options.hasConverter(valueType)) {
-                throw new JsonException("'%s' can not serialize".formatted(valueType.getType().getTypeName()));
-            }
+    private static void serializeValue(JsonWriter writer, Object v, JsonSerializerOptions options) {
+        TypeToken<?> valueType = TypeToken.get(v.getClass());
 
-            JsonConverter<?> converter = options.getConverter(valueType);
-            converter.serialize(tokens, v, options);
-            printComma = true;
+        if (!options.hasConverter(valueType)) {
+            throw new JsonException("'%s' can not serialize".formatted(valueType.getType().getTypeName()));
         }
-        tokens.add(new JsonToken("]", JsonTokenType.ARRAY_END));
+
+        JsonConverter<?> converter = options.getConverter(valueType);
+        converter.serialize(writer, v, options);
     }
 
     @SuppressWarnings("unchecked")
@@ -159,4 +174,54 @@ public abstract class JsonConverterCollection<T> extends JsonConverter<Collectio
 
         return null;
     }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Object deserialize(JsonReader reader, TypeToken<?> typeToConvert, JsonSerializerOptions options) {
+        if (!canConvert(typeToConvert)) {
+            throw new IllegalArgumentException(
+                    "'%s' type is not a collection".formatted(typeToConvert.getType().getTypeName()));
+        }
+
+        if (reader.peek() == JsonTokenType.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        if (reader.peek() != JsonTokenType.ARRAY_START) {
+            throw new IllegalArgumentException("JSON value is not a JSON array");
+        }
+
+        ParameterizedType parameterizedType = (ParameterizedType) typeToConvert.getType();
+        Class<?> collectionType = typeToConvert.getRawType();
+        TypeToken<?> componentType = TypeToken.get(parameterizedType.getActualTypeArguments()[0]);
+
+        try {
+            Collection<Object> collection = (Collection<Object>) collectionType.getConstructor().newInstance();
+
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (!options.hasConverter(componentType)) {
+                    throw new JsonException(
+                            "'%s' can not deserialize".formatted(componentType.getType().getTypeName()));
+                }
+
+                JsonConverter<?> converter = options.getConverter(componentType);
+                collection.add(converter.deserialize(reader, componentType, options));
+            }
+            reader.endArray();
+
+            return collectionType.cast(collection);
+        } catch (InvocationTargetException | IllegalAccessException e) {
+            System.err.println("deserialization: " + e.getMessage());
+            e.printStackTrace();
+        } catch (InstantiationException e) {
+            throw new UnsupportedOperationException(
+                    "User defined constructor instantiation is not supported, " + e.getMessage());
+        } catch (NoSuchMethodException e) {
+            throw new UnsupportedOperationException("Nested classes serialization is not supported, " + e.getMessage());
+        }
+
+        return null;
+    }
 }
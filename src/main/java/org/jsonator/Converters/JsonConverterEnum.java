@@ -19,13 +19,12 @@
 
 package org.jsonator.Converters;
 
-import java.util.Queue;
-
 import org.jsonator.JsonConverter;
 import org.jsonator.JsonElement;
+import org.jsonator.JsonReader;
 import org.jsonator.JsonSerializerOptions;
-import org.jsonator.JsonToken;
 import org.jsonator.JsonTokenType;
+import org.jsonator.JsonWriter;
 import org.jsonator.TypeToken;
 
 public class JsonConverterEnum extends JsonConverter<Enum<?>> {
@@ -42,8 +41,8 @@ public class JsonConverterEnum extends JsonConverter<Enum<?>> {
     }
 
     @Override
-    public void serialize(Queue<JsonToken> tokens, Object value, JsonSerializerOptions options) {
-        tokens.add(new JsonToken(((Integer) ((Enum<?>) value).ordinal()).toString(), JsonTokenType.NUMBER));
+    public void serialize(JsonWriter writer, Object value, JsonSerializerOptions options) {
+        writer.value(((Enum<?>) value).ordinal());
     }
 
     @Override
@@ -56,4 +55,14 @@ public class JsonConverterEnum extends JsonConverter<Enum<?>> {
         Class<?> typeClass = (Class<?>) typeToConvert.getType();
         return typeClass.getEnumConstants()[element.getAsJsonPrimitive().getAsNumber().intValue()];
     }
+
+    @Override
+    public Object deserialize(JsonReader reader, TypeToken<?> typeToConvert, JsonSerializerOptions options) {
+        if (reader.peek() != JsonTokenType.NUMBER) {
+            throw new IllegalArgumentException(
+                    "JSON value is not a '%s'".formatted(getMyType().getType().getTypeName()));
+        }
+
+        return ((Class<?>) typeToConvert.getType()).getEnumConstants()[reader.nextInt()];
+    }
 }
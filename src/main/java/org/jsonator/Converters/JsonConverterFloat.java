@@ -19,13 +19,12 @@
 
 package org.jsonator.Converters;
 
-import java.util.Queue;
-
 import org.jsonator.JsonConverter;
 import org.jsonator.JsonElement;
+import org.jsonator.JsonReader;
 import org.jsonator.JsonSerializerOptions;
-import org.jsonator.JsonToken;
 import org.jsonator.JsonTokenType;
+import org.jsonator.JsonWriter;
 import org.jsonator.TypeToken;
 
 public class JsonConverterFloat extends JsonConverter<Float> {
@@ -36,8 +35,8 @@ public class JsonConverterFloat extends JsonConverter<Float> {
     }
 
     @Override
-    public void serialize(Queue<JsonToken> tokens, Object value, JsonSerializerOptions options) {
-        tokens.add(new JsonToken(value.toString(), JsonTokenType.NUMBER));
+    public void serialize(JsonWriter writer, Object value, JsonSerializerOptions options) {
+        writer.value(((Float) value).floatValue());
     }
 
     @Override
@@ -49,4 +48,14 @@ public class JsonConverterFloat extends JsonConverter<Float> {
 
         return element.getAsJsonPrimitive().getAsNumber().floatValue();
     }
+
+    @Override
+    public Object deserialize(JsonReader reader, TypeToken<?> typeToConvert, JsonSerializerOptions options) {
+        if (reader.peek() != JsonTokenType.NUMBER) {
+            throw new IllegalArgumentException(
+                    "JSON value is not a '%s'".formatted(getMyType().getType().getTypeName()));
+        }
+
+        return reader.nextNumber().floatValue();
+    }
 }
@@ -20,13 +20,12 @@
 package org.jsonator.Converters;
 
 import java.time.LocalDateTime;
-import java.util.Queue;
-
 import org.jsonator.JsonConverter;
 import org.jsonator.JsonElement;
+import org.jsonator.JsonReader;
 import org.jsonator.JsonSerializerOptions;
-import org.jsonator.JsonToken;
 import org.jsonator.JsonTokenType;
+import org.jsonator.JsonWriter;
 import org.jsonator.TypeToken;
 
 public class JsonConverterLocalDateTime extends JsonConverter<LocalDateTime> {
@@ -37,8 +36,8 @@ public class JsonConverterLocalDateTime extends JsonConverter<LocalDateTime> {
     }
 
     @Override
-    public void serialize(Queue<JsonToken> tokens, Object value, JsonSerializerOptions options) {
-        tokens.add(new JsonToken('"' + value.toString() + '"', JsonTokenType.STRING));
+    public void serialize(JsonWriter writer, Object value, JsonSerializerOptions options) {
+        writer.value(value.toString());
     }
 
     @Override
@@ -54,4 +53,19 @@ public class JsonConverterLocalDateTime extends JsonConverter<LocalDateTime> {
 
         return LocalDateTime.parse(element.getAsJsonPrimitive().getAsString());
     }
+
+    @Override
+    public Object deserialize(JsonReader reader, TypeToken<?> typeToConvert, JsonSerializerOptions options) {
+        if (reader.peek() == JsonTokenType.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        if (reader.peek() != JsonTokenType.STRING) {
+            throw new IllegalArgumentException(
+                    "JSON value is not a '%s'".formatted(getMyType().getType().getTypeName()));
+        }
+
+        return LocalDateTime.parse(reader.nextString());
+    }
 }
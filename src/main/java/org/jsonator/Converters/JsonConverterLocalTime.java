@@ -20,13 +20,12 @@
 package org.jsonator.Converters;
 
 import java.time.LocalTime;
-import java.util.Queue;
-
 import org.jsonator.JsonConverter;
 import org.jsonator.JsonElement;
+import org.jsonator.JsonReader;
 import org.jsonator.JsonSerializerOptions;
-import org.jsonator.JsonToken;
 import org.jsonator.JsonTokenType;
+import org.jsonator.JsonWriter;
 import org.jsonator.TypeToken;
 
 public class JsonConverterLocalTime extends JsonConverter<LocalTime> {
@@ -37,8 +36,8 @@ public class JsonConverterLocalTime extends JsonConverter<LocalTime> {
     }
 
     @Override
-    public void serialize(Queue<JsonToken> tokens, Object value, JsonSerializerOptions options) {
-        tokens.add(new JsonToken('"' + value.toString() + '"', JsonTokenType.STRING));
+    public void serialize(JsonWriter writer, Object value, JsonSerializerOptions options) {
+        writer.value(value.toString());
     }
 
     @Override
@@ -54,4 +53,19 @@ public class JsonConverterLocalTime extends JsonConverter<LocalTime> {
 
         return LocalTime.parse(element.getAsJsonPrimitive().getAsString());
     }
+
+    @Override
+    public Object deserialize(JsonReader reader, TypeToken<?> typeToConvert, JsonSerializerOptions options) {
+        if (reader.peek() == JsonTokenType.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        if (reader.peek() != JsonTokenType.STRING) {
+            throw new IllegalArgumentException(
+                    "JSON value is not a '%s'".formatted(getMyType().getType().getTypeName()));
+        }
+
+        return LocalTime.parse(reader.nextString());
+    }
 }
@@ -28,16 +28,15 @@ import java.util.Map.Entry;
 
 import org.jsonator.JsonConverter;
 import org.jsonator.JsonElement;
+import org.jsonator.JsonReader;
 import org.jsonator.JsonException;
 import org.jsonator.JsonObject;
 import org.jsonator.JsonPrimitive;
 import org.jsonator.JsonSerializerOptions;
-import org.jsonator.JsonToken;
 import org.jsonator.JsonTokenType;
+import org.jsonator.JsonWriter;
 import org.jsonator.TypeToken;
 
-import java.util.Queue;
-
 public abstract class JsonConverterMap<K, V> extends JsonConverter<Map<K, V>> {
 
     @SuppressWarnings("unchecked")
@@ -92,31 +91,23 @@ public abstract class JsonConverterMap<K, V> extends JsonConverter<Map<K, V>> {
     }
 
     @Override
-    public void serialize(Queue<JsonToken> tokens, Object value, JsonSerializerOptions options) {
-        boolean printComma = false;
+    public void serialize(JsonWriter writer, Object value, JsonSerializerOptions options) {
         Map<?, ?> m = (Map<?, ?>) value;
 
-        tokens.add(new JsonToken("{", JsonTokenType.OBJECT_START));
+        writer.beginObject();
         for (Entry<?, ?> e : m.entrySet()) {
-            if (printComma) {
-                tokens.add(new JsonToken(",", JsonTokenType.COMMA));
-            }
-
             TypeToken<?> valueType = TypeToken.get(e.getValue().getClass());
 
-            tokens.add(new JsonToken('"' + e.getKey().toString() + '"', JsonTokenType.STRING));
-            tokens.add(new JsonToken(":", JsonTokenType.COLON));
+            writer.name(e.getKey().toString());
 
             if (!options.hasConverter(valueType)) {
                 throw new JsonException("'%s' can not serialize".formatted(e.getValue().getClass().getName()));
             }
 
             JsonConverter<?> converter = options.getConverter(valueType);
-            converter.serialize(tokens, e.getValue(), options);
-
-            printComma = true;
+            converter.serialize(writer, e.getValue(), options);
         }
-        tokens.add(new JsonToken("}", JsonTokenType.OBJECT_END));
+        writer.endObject();
     }
 
     @SuppressWarnings("unchecked")
@@ -184,4 +175,63 @@ public abstract class JsonConverterMap<K, V> extends JsonConverter<Map<K, V>> {
 
         return null;
     }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Object deserialize(JsonReader reader, TypeToken<?> typeToConvert, JsonSerializerOptions options) {
+        if (!canConvert(typeToConvert)) {
+            throw new IllegalArgumentException(
+                    "'%s' type is not a collection".formatted(typeToConvert.getType().getTypeName()));
+        }
+
+        if (reader.peek() == JsonTokenType.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        if (reader.peek() != JsonTokenType.OBJECT_START) {
+            throw new IllegalArgumentException("JSON value is not a JSON object");
+        }
+
+        ParameterizedType parameterizedType = (ParameterizedType) typeToConvert.getType();
+        Class<?> mapType = (Class<?>) parameterizedType.getRawType();
+        TypeToken<?> keyType = TypeToken.get(parameterizedType.getActualTypeArguments()[0]);
+        TypeToken<?> valueType = TypeToken.get(parameterizedType.getActualTypeArguments()[1]);
+
+        try {
+            Map<Object, Object> map = (Map<Object, Object>) mapType.getConstructor().newInstance();
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                Object k = key;
+
+                if (options.hasConverter(keyType)) {
+                    JsonElement keyElement = new JsonPrimitive(key);
+                    JsonConverter<?> converter = options.getConverter(keyType);
+                    k = converter.deserialize(keyElement, keyType, options);
+                }
+
+                if (!options.hasConverter(valueType)) {
+                    throw new JsonException("'%s' can not deserialize".formatted(valueType.getType().getTypeName()));
+                }
+
+                JsonConverter<?> converter = options.getConverter(valueType);
+                map.put(k, converter.deserialize(reader, valueType, options));
+            }
+            reader.endObject();
+
+            return mapType.cast(map);
+        } catch (InvocationTargetException | IllegalAccessException e) {
+            System.err.println("deserialization: " + e.getMessage());
+            e.printStackTrace();
+        } catch (InstantiationException e) {
+            throw new UnsupportedOperationException(
+                    "User defined constructor instantiation is not supported, " + e.getMessage());
+        } catch (NoSuchMethodException e) {
+            throw new UnsupportedOperationException("Nested classes serialization is not supported, " + e.getMessage());
+        }
+
+        return null;
+    }
 }
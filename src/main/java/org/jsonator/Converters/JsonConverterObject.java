@@ -33,6 +33,14 @@ import org.jsonator.Annotations.JsonIgnore;
 
 public class JsonConverterObject extends JsonConverter<Object> {
 
+    // Constructor and fields of each class, resolved once per class
+    private static final ClassValue<Binding> bindings = new ClassValue<>() {
+        @Override
+        protected Binding computeValue(Class<?> type) {
+            return new Binding(type);
+        }
+    };
+
     @Override
     public TypeToken<Object> getMyType() {
         return TypeToken.get(Object.class);
@@ -53,7 +61,7 @@ public class JsonConverterObject extends JsonConverter<Object> {
     }
 
     @Override
-    public void serialize(Queue<JsonToken> tokens, Object value, JsonSerializerOptions options) {
+    public void serialize(JsonWriter writer, Object value, JsonSerializerOptions options) {
         Set<Field> fields = new LinkedHashSet<>();
         Class<?> objectClass = value.getClass();
 
@@ -61,25 +69,19 @@ public class JsonConverterObject extends JsonConverter<Object> {
         Collections.addAll(fields, objectClass.getDeclaredFields());
 
         try {
-            boolean isPrintComma = false;
-            tokens.add(new JsonToken("{", JsonTokenType.OBJECT_START));
+            writer.beginObject();
             for (Field f : fields) {
                 if (f.isAnnotationPresent(JsonIgnore.class)) {
                     continue;
                 }
 
-                if (isPrintComma) {
-                    tokens.add(new JsonToken(",", JsonTokenType.COMMA));
-                }
-
-                tokens.add(new JsonToken('"' + f.getName() + '"', JsonTokenType.STRING));
-                tokens.add(new JsonToken(":", JsonTokenType.COLON));
+                writer.name(f.getName());
 
                 f.setAccessible(true);
                 Object v = f.get(value);
 
                 if (v == null) {
-                    tokens.add(new JsonToken("null", JsonTokenType.NULL));
+                    writer.nullValue();
                 } else {
                     TypeToken<?> fieldType = TypeToken.get(f.getGenericType());
 
@@ -88,12 +90,10 @@ public class JsonConverterObject extends JsonConverter<Object> {
                     }
 
                     JsonConverter<?> converter = options.getConverter(fieldType);
-                    converter.serialize(tokens, v, options);
+                    converter.serialize(writer, v, options);
                 }
-
-                isPrintComma = true;
             }
-            tokens.add(new JsonToken("}", JsonTokenType.OBJECT_END));
+            writer.endObject();
         } catch (IllegalAccessException e) {
             System.err.println("serialization: " + e.getMessage());
             e.printStackTrace();
@@ -154,7 +154,57 @@ public class JsonConverterObject extends JsonConverter<Object> {
         return null;
     }
 
-    private Constructor<?>[] getCandidateConstructors(Type typeToConstruct) {
+    @Override
+    public Object deserialize(JsonReader reader, TypeToken<?> typeToConvert, JsonSerializerOptions options) {
+        if (reader.peek() == JsonTokenType.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        if (reader.peek() != JsonTokenType.OBJECT_START) {
+            throw new IllegalArgumentException("JSON value is not a JSON object");
+        }
+
+        Binding binding = bindings.get((Class<?>) typeToConvert.getType());
+
+        // Annotated constructors need every member up front
+        if (binding.constructor == null) {
+            return deserialize(reader.nextElement(), typeToConvert, options);
+        }
+
+        try {
+            Object o = binding.constructor.newInstance();
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                BoundField field = binding.field(reader.nextName());
+
+                if (field == null) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                if (!options.hasConverter(field.type)) {
+                    throw new JsonException("'%s' can not deserialize".formatted(field.type.getType().getTypeName()));
+                }
+
+                JsonConverter<?> valueConverter = options.getConverter(field.type);
+                field.field.set(o, valueConverter.deserialize(reader, field.type, options));
+            }
+            reader.endObject();
+
+            return o;
+        } catch (InvocationTargetException | IllegalAccessException e) {
+            System.err.println("deserialization: " + e.getMessage());
+            e.printStackTrace();
+            throw new AssertionError(e);
+        } catch (InstantiationException e) {
+            throw new UnsupportedOperationException(
+                    "User defined constructor instantiation is not supported, " + e.getMessage());
+        }
+    }
+
+    private static Constructor<?>[] getCandidateConstructors(Type typeToConstruct) {
         Class<?> typeClass = (Class<?>) typeToConstruct;
 
         if (typeClass.isInterface() || Modifier.isAbstract(typeClass.getModifiers())) {
@@ -231,4 +281,68 @@ public class JsonConverterObject extends JsonConverter<Object> {
                     "User defined constructor instantiation is not supported, " + e.getMessage());
         }
     }
+
+    /**
+     * Default constructor and non ignored fields of a class, fields are looked up
+     * by member name.
+     */
+    private static final class Binding {
+        // Null if the class has no default constructor
+        private final Constructor<?> constructor;
+        private final Map<String, BoundField> fields;
+
+        Binding(Class<?> type) {
+            Constructor<?>[] ctors = getCandidateConstructors(type);
+
+            if (ctors == null) {
+                throw new JsonException("'%s' Class is either an Interface or Abstract class".formatted(type.getName()));
+            }
+
+            if (ctors[0].getParameterCount() == 0) {
+                constructor = ctors[0];
+                constructor.setAccessible(true);
+            } else {
+                constructor = null;
+            }
+
+            fields = new HashMap<>();
+            for (Field f : type.getFields()) {
+                fields.put(f.getName(), new BoundField(f));
+            }
+
+            for (Field f : type.getDeclaredFields()) {
+                fields.put(f.getName(), new BoundField(f));
+            }
+
+            fields.values().removeIf(f -> f.field.isAnnotationPresent(JsonIgnore.class));
+        }
+
+        /**
+         * Returns the field of a member name, matched like
+         * {@link org.jsonator.JsonObject#get(String)} when the case of its first letter
+         * differs.
+         */
+        BoundField field(String name) {
+            BoundField field = fields.get(name);
+
+            if (field != null || name.isEmpty()) {
+                return field;
+            }
+
+            char[] str = name.toCharArray();
+            str[0] = (Character.isUpperCase(str[0])) ? Character.toLowerCase(str[0]) : Character.toUpperCase(str[0]);
+            return fields.get(new String(str));
+        }
+    }
+
+    private static final class BoundField {
+        private final Field field;
+        private final TypeToken<?> type;
+
+        BoundField(Field field) {
+            this.field = field;
+            this.type = TypeToken.get(field.getGenericType());
+            field.setAccessible(true);
+        }
+    }
 }
@@ -19,13 +19,12 @@
 
 package org.jsonator.Converters;
 
-import java.util.Queue;
-
 import org.jsonator.JsonConverter;
 import org.jsonator.JsonElement;
+import org.jsonator.JsonReader;
 import org.jsonator.JsonSerializerOptions;
-import org.jsonator.JsonToken;
 import org.jsonator.JsonTokenType;
+import org.jsonator.JsonWriter;
 import org.jsonator.TypeToken;
 
 public class JsonConverterString extends JsonConverter<String> {
@@ -36,8 +35,8 @@ public class JsonConverterString extends JsonConverter<String> {
     }
 
     @Override
-    public void serialize(Queue<JsonToken> tokens, Object value, JsonSerializerOptions options) {
-        tokens.add(new JsonToken("\"" + value + "\"", JsonTokenType.STRING));
+    public void serialize(JsonWriter writer, Object value, JsonSerializerOptions options) {
+        writer.value((String) value);
     }
 
     @Override
@@ -53,4 +52,19 @@ public class JsonConverterString extends JsonConverter<String> {
 
         return element.getAsJsonPrimitive().getAsString();
     }
+
+    @Override
+    public Object deserialize(JsonReader reader, TypeToken<?> typeToConvert, JsonSerializerOptions options) {
+        if (reader.peek() == JsonTokenType.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        if (reader.peek() != JsonTokenType.STRING) {
+            throw new IllegalArgumentException(
+                    "JSON value is not a '%s'".formatted(getMyType().getType().getTypeName()));
+        }
+
+        return reader.nextString();
+    }
 }
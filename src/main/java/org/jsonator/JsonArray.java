@@ -19,6 +19,10 @@
 
 package org.jsonator;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
@@ -26,6 +30,12 @@ import java.util.function.Predicate;
 
 /**
  * Container to hold JSON array.
+ * <p>
+ * A lazy JSON array, as returned by {@link #lazy(byte[])}, only records the
+ * span of its source and parses its elements on first access. Nested objects
+ * and arrays are lazy as well, subtrees that are never accessed are skipped by
+ * bracket matching and are not validated. Lazy JSON arrays are not safe for
+ * concurrent access until their elements are parsed.
  *
  * @author Tony Medhat
  */
@@ -33,6 +43,11 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
 
     private ArrayList<JsonElement> elements;
 
+    // Source span of a lazy JSON array, null once elements are parsed
+    private byte[] lazySource;
+    private int lazyOffset;
+    private int lazyLength;
+
     /** Default constructor. */
     public JsonArray() {
         super();
@@ -49,13 +64,51 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
         fromJson(source);
     }
 
+    JsonArray(byte[] source, int offset, int length) {
+        super();
+        lazySource = source;
+        lazyOffset = offset;
+        lazyLength = length;
+    }
+
+    /**
+     * Creates a lazy {@code JsonArray} from the given JSON, elements are parsed on
+     * first access.
+     *
+     * @param source valid JSON array string
+     * @return lazy JsonArray of the given JSON string
+     * @throws JsonException if the JSON is not an array
+     */
+    public static JsonArray lazy(String source) {
+        return lazy(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a lazy {@code JsonArray} from the given UTF-8 encoded JSON, elements
+     * are parsed on first access. The array is not copied and must not be modified
+     * while the JSON array is in use.
+     *
+     * @param source valid UTF-8 encoded JSON array
+     * @return lazy JsonArray of the given JSON
+     * @throws JsonException if the JSON is not an array
+     */
+    public static JsonArray lazy(byte[] source) {
+        JsonLexer lexer = new JsonLexer(source);
+
+        if (!lexer.hasToken()) {
+            return new JsonArray();
+        }
+
+        return JsonParser.parseLazy(lexer).getAsJsonArray();
+    }
+
     /**
      * Returns the number of elements in this JSON array.
      *
      * @return the number of elements in this JSON array
      */
     public int size() {
-        return elements.size();
+        return elements().size();
     }
 
     /**
@@ -64,7 +117,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      * @return true if this JSON array contains no elements
      */
     public boolean isEmpty() {
-        return elements.isEmpty();
+        return elements().isEmpty();
     }
 
     /**
@@ -73,7 +126,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      * call returns.
      */
     public void clear() {
-        elements.clear();
+        elements().clear();
     }
 
     /**
@@ -83,7 +136,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      * @return true if collection changed as a result of the call
      */
     public boolean add(JsonElement element) {
-        return elements.add(element);
+        return elements().add(element);
     }
 
     /**
@@ -95,7 +148,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      * @return true if this JSON array changed as a result of the call
      */
     public boolean addAll(Collection<? extends JsonElement> elements) {
-        return this.elements.addAll(elements);
+        return elements().addAll(elements);
     }
 
     /**
@@ -105,7 +158,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      * @return true if this JSON array contains the specified element
      */
     public boolean contains(JsonElement element) {
-        return elements.contains(element);
+        return elements().contains(element);
     }
 
     /**
@@ -116,7 +169,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      * @return true if this collection contains all the elements in this JSON array
      */
     public boolean containsAll(Collection<JsonElement> elements) {
-        return this.elements.containsAll(elements);
+        return elements().containsAll(elements);
     }
 
     /**
@@ -128,7 +181,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      *                                   || index >= size())
      */
     public JsonElement get(int index) {
-        return elements.get(index);
+        return elements().get(index);
     }
 
     /**
@@ -137,7 +190,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      * @return all elements in this JSON array.
      */
     public Collection<JsonElement> getElements() {
-        return elements;
+        return elements();
     }
 
     /**
@@ -147,7 +200,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      * @return the element that was removed from the list
      */
     public JsonElement remove(int index) {
-        return elements.remove(index);
+        return elements().remove(index);
     }
 
     /**
@@ -158,7 +211,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      * @return true if this JSON array changed as a result of the call
      */
     public boolean removeAll(Collection<JsonElement> elements) {
-        return this.elements.removeAll(elements);
+        return elements().removeAll(elements);
     }
 
     /**
@@ -169,7 +222,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      * @return true if any elements were removed
      */
     public boolean removeIf(Predicate<? super JsonElement> filter) {
-        return this.elements.removeIf(filter);
+        return elements().removeIf(filter);
     }
 
     /**
@@ -179,41 +232,168 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      * @return Parsed JsonArray of the given JSON string
      */
     public JsonArray fromJson(String source) {
-        JsonLexer lexer = new JsonLexer(source);
+        return fromJson(new JsonLexer(source));
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON to JsonArray.
+     *
+     * @param source valid UTF-8 encoded JSON
+     * @return Parsed JsonArray of the given JSON
+     */
+    public JsonArray fromJson(byte[] source) {
+        return fromJson(new JsonLexer(source));
+    }
+
+    /**
+     * Parses JSON to JsonArray keeping only the values selected by
+     * {@code projection}, every other value is skipped without being validated.
+     *
+     * @param source     valid JSON string
+     * @param projection paths of the values to parse
+     * @return Parsed JsonArray holding the selected values of the given JSON string
+     */
+    public JsonArray fromJson(String source, JsonProjection projection) {
+        return fromJson(new JsonLexer(source), projection);
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON to JsonArray keeping only the values selected by
+     * {@code projection}, every other value is skipped without being validated.
+     *
+     * @param source     valid UTF-8 encoded JSON
+     * @param projection paths of the values to parse
+     * @return Parsed JsonArray holding the selected values of the given JSON
+     */
+    public JsonArray fromJson(byte[] source, JsonProjection projection) {
+        return fromJson(new JsonLexer(source), projection);
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON to JsonArray, honoring the parsing options. With
+     * {@link JsonSerializerOptions#ParallelParsing} the elements of a large array
+     * are parsed in parallel.
+     *
+     * @param source  valid UTF-8 encoded JSON
+     * @param options serializer options
+     * @return Parsed JsonArray of the given JSON
+     */
+    public JsonArray fromJson(byte[] source, JsonSerializerOptions options) {
+        JsonArray t;
+
+        if (options.ParallelParsing && JsonParallelParser.isParallel(source, 0, source.length)) {
+            t = JsonParallelParser.parseArray(source, 0, source.length, options);
+        } else {
+            JsonLexer lexer = new JsonLexer(source);
+            lexer.setCanonicalValues(options.CanonicalStrings);
+            t = JsonParser.parseArray(lexer, false, options.MaxDepth);
+        }
+
+        elements = t.elements;
+        lazySource = null;
+        return this;
+    }
+
+    /**
+     * Parses a UTF-8 encoded JSON file to JsonArray. The file is memory mapped
+     * rather than read into the heap.
+     *
+     * @param source path of a valid UTF-8 encoded JSON file
+     * @return Parsed JsonArray of the given JSON file
+     * @throws JsonException if the file can not be read
+     */
+    public JsonArray fromJson(Path source) {
+        try (JsonSource mappedSource = JsonSource.of(source)) {
+            return fromJson(new JsonLexer(mappedSource));
+        } catch (IOException io) {
+            throw new JsonException("'%s' can not be read, %s".formatted(source, io.getMessage()), io);
+        }
+    }
+
+    private ArrayList<JsonElement> elements() {
+        if (lazySource != null) {
+            JsonArray t = JsonParser.parseArray(new JsonLexer(lazySource, lazyOffset, lazyLength), true);
+            elements = t.elements;
+            lazySource = null;
+        }
+
+        return elements;
+    }
+
+    private JsonArray fromJson(JsonLexer lexer) {
         JsonArray t = JsonParser.parseArray(lexer);
-        t.elements = elements;
+        elements = t.elements;
+        lazySource = null;
+        return this;
+    }
+
+    private JsonArray fromJson(JsonLexer lexer, JsonProjection projection) {
+        JsonArray t = JsonParser.parseArray(lexer, projection, JsonSerializerOptions.DefaultOptions.MaxDepth);
+        elements = t.elements;
+        lazySource = null;
         return this;
     }
 
     /**
-     * Converts this JSON array to a JSON string.
+     * Converts this JSON array to a compact JSON string.
      *
      * @return JSON string of this JSON array
      */
     public String toJson() {
+        return toJson(JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Converts this JSON array to a JSON string, escaped and indented as by
+     * {@link JsonSerializer#serialize(Object, JsonSerializerOptions)}.
+     *
+     * @param options serialization options
+     * @return JSON string of this JSON array
+     */
+    public String toJson(JsonSerializerOptions options) {
         StringBuilder sb = new StringBuilder();
+        toJson(sb, options);
+        return sb.toString();
+    }
 
-        sb.append("[ ");
-        for (int i = 0; i < size(); ++i) {
-            JsonElement element = get(i);
-            if (i != 0) {
-                sb.append(", ");
-            }
+    /**
+     * Writes this JSON array to {@code out} in a single pass over its tree,
+     * nested containers are written in place without intermediate strings.
+     * {@code out} is flushed if it is {@code Flushable}, it is not closed.
+     *
+     * @param out     destination of the JSON text
+     * @param options serialization options
+     * @throws JsonException if writing to {@code out} fails
+     */
+    public void toJson(Appendable out, JsonSerializerOptions options) {
+        JsonSerializer.serialize(this, out, options);
+    }
 
-            if (element.isJsonArray()) {
-                sb.append(element.getAsJsonArray().toJson());
-            } else if (element.isJsonObject()) {
-                sb.append(element.getAsJsonObject().toJson());
-            } else if (element.isJsonPrimitive()) {
-                sb.append(element.getAsJsonPrimitive().getAsString());
-            } else {
-                sb.append(element);
-            }
-        }
-        sb.append(" ]");
+    /**
+     * Writes this JSON array to {@code out} as UTF-8 encoded JSON in a single
+     * pass over its tree. {@code out} is flushed, it is not closed.
+     *
+     * @param out     destination of the UTF-8 encoded JSON
+     * @param options serialization options
+     * @throws JsonException if writing to {@code out} fails
+     */
+    public void toJson(OutputStream out, JsonSerializerOptions options) {
+        JsonSerializer.serialize(this, out, options);
+    }
 
-        return sb.toString();
+    /**
+     * Writes this JSON array to {@code writer}, iterating its elements once.
+     */
+    void write(JsonWriter writer) {
+        ArrayList<JsonElement> elements = elements();
 
+        writer.beginArray();
+        writer.values(elements.size(), (w, from, to) -> {
+            for (int i = from; i < to; ++i) {
+                w.value(elements.get(i));
+            }
+        });
+        writer.endArray();
     }
 
     /**
@@ -223,6 +403,6 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      */
     @Override
     public Iterator<JsonElement> iterator() {
-        return elements.iterator();
+        return elements().iterator();
     }
 }
@@ -19,6 +19,7 @@
 
 package org.jsonator;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Queue;
 
 /**
@@ -52,13 +53,60 @@ public abstract class JsonConverter<T> {
     }
 
     /**
-     * Serializes a value and adds it to the tokens queue.
+     * Serializes a value and writes it to {@code writer}.
+     * <p>
+     * Converters written against the token queue migrate by writing each token
+     * to {@code writer} instead, {@code OBJECT_START} as
+     * {@link JsonWriter#beginObject()}, a member name as
+     * {@link JsonWriter#name(String)}, a value as one of the
+     * {@code JsonWriter.value} methods. Commas and colons are written by the
+     * writer.
+     *
+     * @param writer  writer positioned where the value goes
+     * @param value   value to serialize
+     * @param options serializer options
+     */
+    public abstract void serialize(JsonWriter writer, Object value, JsonSerializerOptions options);
+
+    /**
+     * Serializes a value and adds it to the tokens queue. The value is written by
+     * {@link #serialize(JsonWriter, Object, JsonSerializerOptions)} then split in
+     * tokens, string tokens hold the quoted and escaped JSON string.
      *
      * @param tokens  tokens queue
      * @param value   value to serialize
      * @param options serializer options
+     * @deprecated converters write to a {@code JsonWriter}, use
+     *             {@link #serialize(JsonWriter, Object, JsonSerializerOptions)}
+     *             instead
      */
-    public abstract void serialize(Queue<JsonToken> tokens, Object value, JsonSerializerOptions options);
+    @Deprecated
+    public void serialize(Queue<JsonToken> tokens, Object value, JsonSerializerOptions options) {
+        JsonWriter writer = new JsonWriter(options);
+
+        try {
+            serialize(writer, value, options);
+
+            byte[] json = writer.toByteArray();
+            JsonLexer lexer = new JsonLexer(json);
+
+            while (lexer.hasToken()) {
+                JsonTokenType type = lexer.nextToken();
+                int start = lexer.tokenStart();
+                int length = lexer.tokenLength();
+
+                if (type == JsonTokenType.STRING) {
+                    // String spans exclude their quotes
+                    start--;
+                    length += 2;
+                }
+
+                tokens.add(new JsonToken(new String(json, start, length, StandardCharsets.UTF_8), type));
+            }
+        } finally {
+            writer.release();
+        }
+    }
 
     /**
      * Returns a deserialized instance of {@code typeToConvert} from
@@ -71,4 +119,21 @@ public abstract class JsonConverter<T> {
      *         {@code element}
      */
     public abstract Object deserialize(JsonElement element, TypeToken<?> typeToConvert, JsonSerializerOptions options);
+
+    /**
+     * Returns a deserialized instance of {@code typeToConvert} read from the next
+     * value of {@code reader}. Converters override this to bind values straight
+     * from the token stream, by default the value is parsed to a
+     * {@code JsonElement} and passed to
+     * {@link #deserialize(JsonElement, TypeToken, JsonSerializerOptions)}.
+     *
+     * @param reader        reader positioned before the value to deserialize
+     * @param typeToConvert type to deserialize to
+     * @param options       serializer options
+     * @return Returns an instance of {@code typToConvert} populated from the next
+     *         value of {@code reader}
+     */
+    public Object deserialize(JsonReader reader, TypeToken<?> typeToConvert, JsonSerializerOptions options) {
+        return deserialize(reader.nextElement(), typeToConvert, options);
+    }
 }
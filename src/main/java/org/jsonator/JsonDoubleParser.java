@@ -0,0 +1,166 @@
+/*
+ *
+ * Copyright (c) 2023 Tony Medhat
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jsonator;
+
+import java.math.BigInteger;
+
+/**
+ * Converts a decimal significand and exponent to the nearest double with the
+ * Eisel-Lemire algorithm, preceded by Clinger's fast path for values whose
+ * significand and power of ten are both exact doubles.
+ * <p>
+ * The algorithm is exact whenever it returns a value, inputs it can not decide
+ * (subnormals and halfway cases at the precision of the power table) return
+ * {@link Double#NaN}, which can not be the value of a JSON number, and must be
+ * converted by a slower correct parser.
+ */
+final class JsonDoubleParser {
+
+    private static final int MIN_EXPONENT = -342;
+    private static final int MAX_EXPONENT = 308;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    // 128 bit significands of 10^MIN_EXPONENT..10^MAX_EXPONENT, normalized so
+    // that the top bit of the high word is set
+    private static final long[] POWERS_HIGH = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+    private static final long[] POWERS_LOW = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+
+    static {
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+        for (int q = MIN_EXPONENT; q <= MAX_EXPONENT; ++q) {
+            // 10^q and 5^q share their significand
+            BigInteger power = BigInteger.valueOf(5).pow(Math.abs(q));
+            BigInteger significand;
+
+            if (q >= 0) {
+                int shift = power.bitLength() - 128;
+                significand = (shift > 0) ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            } else if (q >= -27) {
+                significand = BigInteger.ONE.shiftLeft(power.bitLength() + 127).divide(power).add(BigInteger.ONE);
+            } else {
+                significand = BigInteger.ONE.shiftLeft(2 * power.bitLength() + 128).divide(power)
+                        .add(BigInteger.ONE);
+                significand = significand.shiftRight(significand.bitLength() - 128);
+            }
+
+            POWERS_HIGH[q - MIN_EXPONENT] = significand.shiftRight(64).longValue();
+            POWERS_LOW[q - MIN_EXPONENT] = significand.and(mask).longValue();
+        }
+    }
+
+    private JsonDoubleParser() {
+    }
+
+    /**
+     * Returns the double nearest to {@code significand * 10^exponent}.
+     *
+     * @param significand unsigned decimal significand of up to 19 digits
+     * @param exponent    decimal exponent
+     * @param isNegative  true if the value is negative
+     * @return the nearest double, or {@link Double#NaN} if the value can not be
+     *         decided
+     */
+    static double toDouble(long significand, int exponent, boolean isNegative) {
+        if (significand == 0 || exponent < MIN_EXPONENT) {
+            return (isNegative ? -0.0 : 0.0);
+        }
+
+        if ((significand >>> 53) == 0 && exponent >= -22 && exponent <= 22) {
+            double value = (double) significand;
+            value = (exponent < 0) ? value / POWERS_OF_TEN[-exponent] : value * POWERS_OF_TEN[exponent];
+            return (isNegative ? -value : value);
+        }
+
+        if (exponent > MAX_EXPONENT) {
+            return (isNegative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+        }
+
+        return eiselLemire(significand, exponent, isNegative);
+    }
+
+    private static double eiselLemire(long significand, int exponent, boolean isNegative) {
+        int leadingZeros = Long.numberOfLeadingZeros(significand);
+        significand <<= leadingZeros;
+        // 217706 / 2^16 approximates log2(10)
+        long binaryExponent = ((217706L * exponent) >> 16) + 64 + 1023 - leadingZeros;
+
+        long powerHigh = POWERS_HIGH[exponent - MIN_EXPONENT];
+        long high = unsignedMultiplyHigh(significand, powerHigh);
+        long low = significand * powerHigh;
+
+        // Product is truncated, widen it with the low word of the power
+        if ((high & 0x1FF) == 0x1FF && Long.compareUnsigned(low + significand, significand) < 0) {
+            long powerLow = POWERS_LOW[exponent - MIN_EXPONENT];
+            long lowHigh = unsignedMultiplyHigh(significand, powerLow);
+            long lowLow = significand * powerLow;
+            long mergedHigh = high;
+            long mergedLow = low + lowHigh;
+
+            if (Long.compareUnsigned(mergedLow, low) < 0) {
+                mergedHigh++;
+            }
+
+            if ((mergedHigh & 0x1FF) == 0x1FF && mergedLow == -1
+                    && Long.compareUnsigned(lowLow + significand, significand) < 0) {
+                return Double.NaN;
+            }
+
+            high = mergedHigh;
+            low = mergedLow;
+        }
+
+        // Keep 54 bits, one more than the double significand for rounding
+        int upper = (int) (high >>> 63);
+        long mantissa = high >>> (upper + 9);
+        binaryExponent -= 1 ^ upper;
+
+        // Halfway between two doubles
+        if (low == 0 && (high & 0x1FF) == 0 && (mantissa & 3) == 1) {
+            return Double.NaN;
+        }
+
+        mantissa += (mantissa & 1);
+        mantissa >>>= 1;
+        if ((mantissa >>> 53) > 0) {
+            mantissa >>>= 1;
+            binaryExponent++;
+        }
+
+        // Subnormal or infinite
+        if (binaryExponent <= 0 || binaryExponent >= 0x7FF) {
+            return Double.NaN;
+        }
+
+        long bits = (binaryExponent << 52) | (mantissa & 0x000FFFFFFFFFFFFFL);
+        if (isNegative) {
+            bits |= Long.MIN_VALUE;
+        }
+
+        return Double.longBitsToDouble(bits);
+    }
+
+    private static long unsignedMultiplyHigh(long x, long y) {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+}
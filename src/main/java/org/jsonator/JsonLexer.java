@@ -19,314 +19,1030 @@
 
 package org.jsonator;
 
-import java.io.CharArrayWriter;
 import java.io.IOException;
-import java.io.StringReader;
-import java.util.ArrayList;
-import java.util.Hashtable;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 
+/**
+ * Pull lexer, tokens are read from the underlying UTF-8 source one at a time as
+ * the parser asks for them.
+ * <p>
+ * A token is a span (type, start, length and flags) into the lexer buffer, no
+ * object is allocated per token. String and number values are only
+ * materialized through the value accessors, which refer to the current token
+ * and are valid until the next call to {@link #peek()} or {@link #nextToken()}.
+ * <p>
+ * Bytes are classified through a 256 entry lookup table, string contents are
+ * scanned 8 bytes at a time and whole objects or arrays can be skipped over a
+ * {@link JsonStructuralIndex} without being tokenized.
+ */
 class JsonLexer {
 
     public static final String LITERAL_TRUE = "true";
     public static final String LITERAL_FALSE = "false";
     public static final String LITERAL_NULL = "null";
 
-    private static final Hashtable<Character, JsonTokenType> charToToken = new Hashtable<>();
+    private static final int BUFFER_SIZE = 8192;
+    // Smallest free space handed to the source, fits any UTF-8 sequence
+    private static final int MIN_READ_SIZE = 64;
+
+    // Byte classes
+    private static final byte CLASS_INVALID = 0;
+    private static final byte CLASS_WHITESPACE = 1;
+    private static final byte CLASS_OBJECT_START = 2;
+    private static final byte CLASS_OBJECT_END = 3;
+    private static final byte CLASS_ARRAY_START = 4;
+    private static final byte CLASS_ARRAY_END = 5;
+    private static final byte CLASS_COLON = 6;
+    private static final byte CLASS_COMMA = 7;
+    private static final byte CLASS_QUOTE = 8;
+    private static final byte CLASS_NUMBER = 9;
+    private static final byte CLASS_TRUE = 10;
+    private static final byte CLASS_FALSE = 11;
+    private static final byte CLASS_NULL = 12;
+
+    private static final byte[] byteClass = new byte[256];
     static {
-        charToToken.put('{', JsonTokenType.OBJECT_START);
-        charToToken.put('}', JsonTokenType.OBJECT_END);
-        charToToken.put('[', JsonTokenType.ARRAY_START);
-        charToToken.put(']', JsonTokenType.ARRAY_END);
-        charToToken.put(':', JsonTokenType.COLON);
-        charToToken.put(',', JsonTokenType.COMMA);
+        byteClass[' '] = CLASS_WHITESPACE;
+        byteClass['\t'] = CLASS_WHITESPACE;
+        byteClass['\n'] = CLASS_WHITESPACE;
+        byteClass['\r'] = CLASS_WHITESPACE;
+        byteClass['{'] = CLASS_OBJECT_START;
+        byteClass['}'] = CLASS_OBJECT_END;
+        byteClass['['] = CLASS_ARRAY_START;
+        byteClass[']'] = CLASS_ARRAY_END;
+        byteClass[':'] = CLASS_COLON;
+        byteClass[','] = CLASS_COMMA;
+        byteClass['"'] = CLASS_QUOTE;
+        byteClass['-'] = CLASS_NUMBER;
+        for (int c = '0'; c <= '9'; ++c) {
+            byteClass[c] = CLASS_NUMBER;
+        }
+        byteClass['t'] = CLASS_TRUE;
+        byteClass['f'] = CLASS_FALSE;
+        byteClass['n'] = CLASS_NULL;
     }
 
-    private ArrayList<JsonToken> tokens;
-    private int index;
+    // Token flags
+    private static final int FLAG_ESCAPES = 1;
+    private static final int FLAG_DECIMAL = 2;
+    private static final int FLAG_NEGATIVE = 4;
+    // Number has more significant digits than the significand holds
+    private static final int FLAG_TRUNCATED = 8;
+
+    private static final int MAX_SIGNIFICAND_DIGITS = 19;
+
+    // Longest key and string value, in bytes, shared through the string table
+    private static final int MAX_CANONICAL_KEY_LENGTH = 256;
+    private static final int MAX_CANONICAL_VALUE_LENGTH = 32;
+
+    private static final byte[] BYTES_TRUE = LITERAL_TRUE.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BYTES_FALSE = LITERAL_FALSE.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BYTES_NULL = LITERAL_NULL.getBytes(StandardCharsets.US_ASCII);
+
+    // Last 4 bytes of each literal, the first byte is already matched by dispatch
+    private static final int TAIL_TRUE = JsonStructuralIndex.intAt(BYTES_TRUE, 0);
+    private static final int TAIL_FALSE = JsonStructuralIndex.intAt(BYTES_FALSE, 1);
+    private static final int TAIL_NULL = JsonStructuralIndex.intAt(BYTES_NULL, 0);
+    static final int[] BYTE_ORDER_MARK = { 0xEF, 0xBB, 0xBF };
+
+    // Largest scratch buffer kept by a lexer between documents
+    private static final int MAX_RETAINED_SIZE = 1 << 20;
+
+    // Null when the whole document is held in buffer
+    private JsonSource source;
+    private byte[] buffer;
+    // Buffer owned by the lexer, kept across resets to read sources and
+    // encoded strings into
+    private byte[] scratch;
+    private int position;
+    private int limit;
+
+    // Current token, string spans exclude the quotes
+    private JsonTokenType tokenType;
+    private int tokenStart;
+    private int tokenLength;
+    private int tokenFlags;
+    private boolean isTokenPending;
+
+    // Current number token as significand * 10^numberExponent, the significand
+    // is unsigned and holds up to 19 significant digits
+    private long numberSignificand;
+    private int numberDigits;
+    private int numberExponent;
+
     private int lineIndex;
 
-    JsonLexer() {
-        tokens = new ArrayList<>();
+    // Created on the first skipped object or array
+    private JsonStructuralIndex index;
+    private byte[] padding;
+
+    // Created on the first key, outlives reset until cleared
+    private JsonStringTable strings;
+    private boolean isCanonicalValues;
+
+    // Decoding buffer of strings with escapes, reused across tokens
+    private char[] chars;
+    // Code point of the last decoded UTF-8 sequence
+    private int decoded;
+
+    JsonLexer(byte[] source) {
+        this(source, 0, source.length);
+    }
+
+    JsonLexer(byte[] source, int offset, int length) {
+        this.source = null;
+        buffer = source;
+        position = offset;
+        limit = offset + length;
         lineIndex = 1;
-        index = 0;
+        skipByteOrderMark();
     }
 
-    JsonLexer(String source) {
-        this();
-        lex(source);
+    JsonLexer(JsonSource source) {
+        this.source = source;
+        buffer = new byte[BUFFER_SIZE];
+        lineIndex = 1;
+        skipByteOrderMark();
     }
 
-    boolean hasToken() {
-        return (index < tokens.size());
+    JsonLexer(CharSequence source) {
+        this(source.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    JsonLexer(Reader source) {
+        this(JsonSource.of(source));
+    }
+
+    JsonLexer(InputStream source) {
+        this(JsonSource.of(source));
     }
 
-    ArrayList<JsonToken> getTokens() {
-        return tokens;
+    JsonLexer(ByteBuffer source) {
+        this(source.hasArray() ? null : JsonSource.of(source), source);
     }
 
-    ArrayList<JsonToken> lex(String source) {
-        tokens = new ArrayList<>();
+    private JsonLexer(JsonSource source, ByteBuffer bytes) {
+        this.source = source;
+
+        if (source == null) {
+            buffer = bytes.array();
+            position = bytes.arrayOffset() + bytes.position();
+            limit = bytes.arrayOffset() + bytes.limit();
+        } else {
+            buffer = new byte[BUFFER_SIZE];
+        }
+
         lineIndex = 1;
-        index = 0;
+        skipByteOrderMark();
+    }
 
-        try (StringReader sr = new StringReader(source)) {
-            while (true) {
-                JsonToken token = readToken(sr);
+    /**
+     * Forgets the strings shared so far, later strings are no longer shared with
+     * those of previous sources.
+     */
+    void clearStrings() {
+        if (strings != null) {
+            strings.clear();
+        }
+    }
 
-                if (token == null) {
-                    break;
-                }
-                tokens.add(token);
+    /**
+     * Points the lexer at another span of a byte array, lexing starts over.
+     */
+    void reset(byte[] source, int offset, int length) {
+        retainScratch();
+        this.source = null;
+        buffer = source;
+        position = offset;
+        limit = offset + length;
+        tokenLength = 0;
+        isTokenPending = false;
+        lineIndex = 1;
+        skipByteOrderMark();
+    }
+
+    /**
+     * Points the lexer at another source, lexing starts over. The source is read
+     * into the scratch buffer of a previous source when there is one.
+     */
+    void reset(JsonSource source) {
+        retainScratch();
+        this.source = source;
+        buffer = (scratch != null) ? scratch : new byte[BUFFER_SIZE];
+        scratch = buffer;
+        position = 0;
+        limit = 0;
+        isTokenPending = false;
+        lineIndex = 1;
+        skipByteOrderMark();
+    }
+
+    /**
+     * Points the lexer at the UTF-8 encoding of {@code source}, lexing starts
+     * over. Short strings are encoded into the scratch buffer rather than a new
+     * array.
+     */
+    void reset(CharSequence source) {
+        retainScratch();
+        int length = source.length();
+
+        // Each char encodes to at most 3 bytes, a surrogate pair to 4
+        if (length > MAX_RETAINED_SIZE / 3) {
+            buffer = source.toString().getBytes(StandardCharsets.UTF_8);
+            limit = buffer.length;
+        } else {
+            if (scratch == null || scratch.length < length * 3) {
+                scratch = new byte[Math.max(length * 3, BUFFER_SIZE)];
             }
-        } catch (IOException io) {
-            System.err.println("lexer: " + io.getMessage());
-            io.printStackTrace();
+
+            buffer = scratch;
+            limit = encodeUtf8(source, scratch);
         }
 
-        return tokens;
+        this.source = null;
+        position = 0;
+        isTokenPending = false;
+        lineIndex = 1;
+        skipByteOrderMark();
     }
 
-    JsonToken nextToken() {
-        if (!hasToken()) {
-            throw new NoSuchElementException("Token list is empty");
+    boolean hasToken() {
+        if (!isTokenPending) {
+            try {
+                tokenType = readToken();
+            } catch (IOException io) {
+                throw new JsonException("lexer: " + io.getMessage(), io);
+            }
+
+            isTokenPending = (tokenType != null);
         }
 
-        return tokens.get(index++);
+        return isTokenPending;
     }
 
-    public JsonToken previousToken() {
-        if (index - 2 < 0) {
-            throw new NoSuchElementException("Token list contains one or none tokens");
+    /**
+     * Consumes the next token.
+     *
+     * @return type of the consumed token
+     */
+    JsonTokenType nextToken() {
+        if (!hasToken()) {
+            throw new NoSuchElementException("Token stream is empty");
         }
 
-        return tokens.get(index - 2);
+        isTokenPending = false;
+        return tokenType;
     }
 
-    void ungetToken() {
-        if (index <= 0) {
-            throw new NoSuchElementException("Token index is zero");
+    /**
+     * Returns the type of the next token without consuming it.
+     *
+     * @return type of the next token
+     */
+    JsonTokenType peek() {
+        if (!hasToken()) {
+            throw new NoSuchElementException("Token stream is empty");
         }
 
-        index--;
+        return tokenType;
     }
 
-    JsonToken peek() {
-        if (!hasToken()) {
-            throw new NoSuchElementException("Token list is empty");
+    /**
+     * Consumes the next value, objects and arrays are skipped by matching
+     * brackets over a {@link JsonStructuralIndex} and their contents are neither
+     * tokenized nor validated. The current token spans the whole value.
+     *
+     * @return type of the first token of the consumed value
+     */
+    JsonTokenType skipValue() {
+        JsonTokenType type = nextToken();
+
+        if (type == JsonTokenType.OBJECT_START || type == JsonTokenType.ARRAY_START) {
+            try {
+                skipContainer(type);
+            } catch (IOException io) {
+                throw new JsonException("lexer: " + io.getMessage(), io);
+            }
         }
 
-        return tokens.get(index);
+        return type;
     }
 
-    private JsonToken readToken(StringReader sr) throws IOException, JsonException {
-        JsonToken token = null;
-        int c = '\0';
+    /**
+     * Returns the decoded contents of the current string token. Short strings are
+     * shared through the string table if canonical values are enabled.
+     */
+    String stringValue() {
+        if (isCanonicalValues && tokenLength <= MAX_CANONICAL_VALUE_LENGTH) {
+            return canonicalValue();
+        }
 
-        skipWhiteSpace(sr);
-        c = sr.read();
+        return decodeString();
+    }
 
-        // Handle EOF
-        if (c == -1) {
-            return null;
+    /**
+     * Returns the decoded contents of the current string token as an object key,
+     * repeated keys return the same instance.
+     */
+    String keyValue() {
+        if (tokenLength <= MAX_CANONICAL_KEY_LENGTH) {
+            return canonicalValue();
         }
 
-        // Extract Token
-        {
-            if (charToToken.containsKey((char) c)) {
-                token = new JsonToken(Character.toString(c), charToToken.get((char) c));
-            } else {
-                boolean isJsonLiteral = false;
+        return decodeString();
+    }
 
-                sr.reset();
+    /**
+     * Enables sharing short string values through the string table, like keys.
+     */
+    void setCanonicalValues(boolean isCanonicalValues) {
+        this.isCanonicalValues = isCanonicalValues;
+    }
 
-                isJsonLiteral = ((token = lexString(sr, lineIndex)) != null)
-                        || ((token = lexBool(sr)) != null)
-                        || ((token = lexNull(sr)) != null)
-                        || ((token = lexNumber(sr, lineIndex)) != null);
+    boolean booleanValue() {
+        return (buffer[tokenStart] == 't');
+    }
 
-                if (!isJsonLiteral) {
-                    throw new JsonException("Unexpected token '%c':line %d".formatted(c, lineIndex));
-                }
-            }
+    /**
+     * Returns true if the current number token has a fraction or an exponent.
+     */
+    boolean isDecimal() {
+        return ((tokenFlags & FLAG_DECIMAL) != 0);
+    }
+
+    /**
+     * Returns true if the current string token contains escape sequences.
+     */
+    boolean hasEscapes() {
+        return ((tokenFlags & FLAG_ESCAPES) != 0);
+    }
+
+    /**
+     * Returns the value of the current integral number token.
+     *
+     * @throws NumberFormatException if the value does not fit in a long
+     */
+    long longValue() {
+        // Up to 18 digits can not overflow
+        if (numberDigits > 18 || (tokenFlags & FLAG_TRUNCATED) != 0) {
+            return Long.parseLong(tokenText());
+        }
+
+        return (((tokenFlags & FLAG_NEGATIVE) != 0) ? -numberSignificand : numberSignificand);
+    }
 
-            sr.mark(0);
+    /**
+     * Returns the value of the current number token, rounded to the nearest
+     * double.
+     */
+    double doubleValue() {
+        if ((tokenFlags & FLAG_TRUNCATED) == 0) {
+            double value = JsonDoubleParser.toDouble(numberSignificand, numberExponent,
+                    (tokenFlags & FLAG_NEGATIVE) != 0);
+
+            if (!Double.isNaN(value)) {
+                return value;
+            }
         }
 
-        return token;
+        return Double.parseDouble(tokenText());
     }
 
-    private void skipWhiteSpace(StringReader sr) throws IOException {
-        int c = '\0';
+    /**
+     * Returns true if the buffer holds the whole source and is never overwritten,
+     * token spans then stay valid for the lifetime of the lexer.
+     */
+    boolean isBuffered() {
+        return (source == null && buffer != scratch);
+    }
 
-        do {
-            c = sr.read();
+    /**
+     * Returns the buffer that the current token span refers to.
+     */
+    byte[] buffer() {
+        return buffer;
+    }
 
-            if (!Character.isWhitespace(c)) {
-                sr.reset();
-                break;
-            }
-            sr.mark(0);
+    int tokenStart() {
+        return tokenStart;
+    }
 
-            if (c == '\n') {
-                lineIndex++;
-            }
-        } while (c != -1);
+    int tokenLength() {
+        return tokenLength;
+    }
 
+    /**
+     * Returns the raw text of the current token.
+     */
+    String tokenText() {
+        return new String(buffer, tokenStart, tokenLength, StandardCharsets.UTF_8);
     }
 
-    private JsonToken lexString(StringReader sr, int lineIndex) throws IOException, JsonException {
-        CharArrayWriter cw = new CharArrayWriter();
-        int prevChar = '\0';
-        int c = '\0';
+    private String canonicalValue() {
+        if (strings == null) {
+            strings = new JsonStringTable();
+        }
 
-        sr.mark(0);
-        if ((c = sr.read()) != '"') {
-            sr.reset();
-            return null;
+        int hash = JsonStringTable.hash(buffer, tokenStart, tokenLength);
+        String s = strings.get(hash, buffer, tokenStart, tokenLength);
+
+        if (s == null) {
+            s = decodeString();
+            strings.put(hash, buffer, tokenStart, tokenLength, s);
         }
-        cw.append((char) c);
 
-        while ((c = sr.read()) != -1) {
-            cw.append((char) c);
+        return s;
+    }
 
-            if (c == '"' && prevChar != '\\') {
-                break;
-            }
+    private String decodeString() {
+        // Contents are taken as is when there is nothing to unescape
+        if ((tokenFlags & FLAG_ESCAPES) == 0) {
+            return new String(buffer, tokenStart, tokenLength, StandardCharsets.UTF_8);
+        }
 
-            prevChar = c;
+        // Decoding never yields more chars than there are bytes
+        if (chars == null || chars.length < tokenLength) {
+            chars = new char[Math.max(tokenLength, 64)];
         }
 
-        if (c == '"') {
-            return new JsonToken(cw.toString(), JsonTokenType.STRING);
+        int count = 0;
+        int i = tokenStart;
+        int end = tokenStart + tokenLength;
+
+        while (i < end) {
+            byte b = buffer[i];
+
+            if (b >= 0 && b != '\\') {
+                chars[count++] = (char) b;
+                i++;
+            } else if (b < 0) {
+                i = decodeUtf8(i, end);
+                count = decodedCount(count);
+            } else {
+                // The lexer guarantees a byte after every backslash
+                byte escaped = buffer[i + 1];
+                i += 2;
+
+                switch (escaped) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        chars[count++] = (char) escaped;
+                        break;
+                    case 'b':
+                        chars[count++] = '\b';
+                        break;
+                    case 'f':
+                        chars[count++] = '\f';
+                        break;
+                    case 'n':
+                        chars[count++] = '\n';
+                        break;
+                    case 'r':
+                        chars[count++] = '\r';
+                        break;
+                    case 't':
+                        chars[count++] = '\t';
+                        break;
+                    case 'u':
+                        // Surrogate pairs are two escapes, each one a UTF-16 unit
+                        chars[count++] = hexChar(i, end);
+                        i += 4;
+                        break;
+                    default:
+                        throw invalidEscape();
+                }
+            }
         }
 
-        throw new JsonException("Expected end-of-string quote, got: '%s':line %d".formatted(cw.toString(), lineIndex));
+        return new String(chars, 0, count);
     }
 
-    private JsonToken lexBool(StringReader sr) throws IOException {
-        int c = 0;
-        CharArrayWriter cw = new CharArrayWriter(5);
+    /**
+     * Decodes the UTF-8 sequence starting at {@code i} into {@link #decoded},
+     * malformed sequences decode to U+FFFD.
+     *
+     * @return index of the byte after the sequence
+     */
+    private int decodeUtf8(int i, int end) {
+        int b = buffer[i] & 0xFF;
+        int size = (b >= 0xF0) ? 4 : (b >= 0xE0) ? 3 : (b >= 0xC2) ? 2 : 0;
+        int min = (size == 4) ? 0x10000 : (size == 3) ? 0x800 : 0x80;
+
+        if (size == 0 || i + size > end) {
+            decoded = 0xFFFD;
+            return i + 1;
+        }
 
-        sr.mark(0);
-        while ((c = sr.read()) != -1) {
-            cw.append((char) c);
+        int codePoint = b & (0x7F >>> size);
+        for (int k = 1; k < size; ++k) {
+            int c = buffer[i + k];
 
-            if (cw.size() == LITERAL_TRUE.length()) {
-                break;
+            if ((c & 0xC0) != 0x80) {
+                decoded = 0xFFFD;
+                return i + 1;
             }
+            codePoint = (codePoint << 6) | (c & 0x3F);
         }
 
-        if (LITERAL_TRUE.contentEquals(cw.toString())) {
-            return new JsonToken(LITERAL_TRUE, JsonTokenType.BOOLEAN);
+        if (codePoint < min || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            decoded = 0xFFFD;
+            return i + 1;
+        }
+
+        decoded = codePoint;
+        return i + size;
+    }
+
+    private int decodedCount(int count) {
+        if (decoded >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            chars[count++] = Character.highSurrogate(decoded);
+            chars[count++] = Character.lowSurrogate(decoded);
+        } else {
+            chars[count++] = (char) decoded;
+        }
+
+        return count;
+    }
+
+    private char hexChar(int i, int end) {
+        if (i + 4 > end) {
+            throw invalidEscape();
         }
 
-        if ((c != -1) && ((c = sr.read()) != -1)) {
-            cw.append((char) c);
+        int c = 0;
+        for (int k = i; k < i + 4; ++k) {
+            int digit = Character.digit(buffer[k], 16);
 
-            if (LITERAL_FALSE.contentEquals(cw.toString())) {
-                return new JsonToken(LITERAL_FALSE, JsonTokenType.BOOLEAN);
+            if (digit < 0) {
+                throw invalidEscape();
             }
+            c = (c << 4) | digit;
         }
 
-        sr.reset();
-        return null;
+        return (char) c;
     }
 
-    private JsonToken lexNull(StringReader sr) throws IOException {
-        char[] charBuffer = new char[4];
+    private JsonException invalidEscape() {
+        return new JsonException("Invalid escape sequence, got: '%s':line %d".formatted(tokenText(), lineIndex));
+    }
 
-        sr.mark(0);
-        if (sr.read(charBuffer, 0, charBuffer.length) == -1) {
-            sr.reset();
+    private JsonTokenType readToken() throws IOException, JsonException {
+        if (!skipWhiteSpace()) {
             return null;
         }
 
-        if (LITERAL_NULL.equals(String.valueOf(charBuffer))) {
-            return new JsonToken(LITERAL_NULL, JsonTokenType.NULL);
+        tokenStart = position;
+        tokenLength = 1;
+        tokenFlags = 0;
+        int c = buffer[position] & 0xFF;
+
+        switch (byteClass[c]) {
+            case CLASS_OBJECT_START:
+                position++;
+                return JsonTokenType.OBJECT_START;
+            case CLASS_OBJECT_END:
+                position++;
+                return JsonTokenType.OBJECT_END;
+            case CLASS_ARRAY_START:
+                position++;
+                return JsonTokenType.ARRAY_START;
+            case CLASS_ARRAY_END:
+                position++;
+                return JsonTokenType.ARRAY_END;
+            case CLASS_COLON:
+                position++;
+                return JsonTokenType.COLON;
+            case CLASS_COMMA:
+                position++;
+                return JsonTokenType.COMMA;
+            case CLASS_QUOTE:
+                lexString();
+                return JsonTokenType.STRING;
+            case CLASS_NUMBER:
+                lexNumber();
+                return JsonTokenType.NUMBER;
+            case CLASS_TRUE:
+                lexLiteral(BYTES_TRUE, TAIL_TRUE);
+                return JsonTokenType.BOOLEAN;
+            case CLASS_FALSE:
+                lexLiteral(BYTES_FALSE, TAIL_FALSE);
+                return JsonTokenType.BOOLEAN;
+            case CLASS_NULL:
+                lexLiteral(BYTES_NULL, TAIL_NULL);
+                return JsonTokenType.NULL;
+            default:
+                throw new JsonException("Unexpected token '%c':line %d".formatted(c, lineIndex));
         }
+    }
 
-        sr.reset();
-        return null;
+    /**
+     * Advances to the next non-whitespace byte.
+     *
+     * @return false if the end of the source is reached
+     */
+    private boolean skipWhiteSpace() throws IOException {
+        do {
+            while (position < limit) {
+                byte b = buffer[position];
+
+                if (byteClass[b & 0xFF] != CLASS_WHITESPACE) {
+                    return true;
+                }
+
+                if (b == '\n') {
+                    lineIndex++;
+                }
+                position++;
+            }
+
+            tokenStart = position;
+        } while (fill());
+
+        return false;
     }
 
-    private JsonToken lexNumber(StringReader sr, int lineIndex) throws IOException, JsonException {
-        CharArrayWriter cw = new CharArrayWriter();
-        boolean isError = false;
+    private void lexString() throws IOException, JsonException {
+        // Skip opening quote
+        position++;
 
-        {
-            boolean hasSign = false;
-            boolean isFraction = false;
-            boolean isExponent = false;
-            int prevChar = '\0';
-            int c = '\0';
+        while (true) {
+            // Skip whole words free of quotes and backslashes
+            while (limit - position >= Long.BYTES) {
+                long word = JsonStructuralIndex.wordAt(buffer, position);
+                long stops = JsonStructuralIndex.equalBytes(word, '"') | JsonStructuralIndex.equalBytes(word, '\\');
 
-            sr.mark(0);
-            while ((c = sr.read()) != -1) {
-                if (cw.size() == 0 && (c == '-')) {
-                    cw.append((char) c);
-                    hasSign = true;
-                    continue;
+                if (stops != 0) {
+                    position += (Long.numberOfTrailingZeros(stops) >>> 3);
+                    break;
+                }
+                position += Long.BYTES;
+            }
+
+            if (position >= limit) {
+                if (!fill()) {
+                    throw unterminatedString();
                 }
+                continue;
+            }
+
+            byte b = buffer[position++];
+
+            if (b == '"') {
+                // Span covers the contents only
+                tokenStart++;
+                tokenLength = position - tokenStart - 1;
+                return;
+            }
+
+            if (b == '\\') {
+                tokenFlags |= FLAG_ESCAPES;
+
+                // Escaped byte is taken as is, even when it is a quote
+                if (position >= limit && !fill()) {
+                    throw unterminatedString();
+                }
+                position++;
+            }
+        }
+    }
+
+    private JsonException unterminatedString() {
+        tokenLength = position - tokenStart;
+        return new JsonException(
+                "Expected end-of-string quote, got: '%s':line %d".formatted(tokenText(), lineIndex));
+    }
+
+    private void skipContainer(JsonTokenType type) throws IOException, JsonException {
+        if (index == null) {
+            index = new JsonStructuralIndex();
+            padding = new byte[JsonStructuralIndex.BLOCK_SIZE];
+        }
+
+        index.reset();
+        int blockStart = position;
+        int depth = 1;
+
+        while (true) {
+            boolean isLast = false;
 
-                if (Character.isDigit(c)) {
-                    cw.append((char) c);
-                    sr.mark(0);
-                    prevChar = c;
+            if (limit - blockStart < JsonStructuralIndex.BLOCK_SIZE) {
+                // Buffer is shifted by the compacted prefix
+                int shift = tokenStart;
+                boolean isFilled = fill();
+                blockStart -= (shift - tokenStart);
+
+                if (isFilled) {
                     continue;
                 }
 
-                if (c == '.') {
-                    isError = (isFraction || isExponent);
-                    isFraction = true;
-                } else if (Character.toLowerCase(c) == 'e') {
-                    isError = (isExponent || (prevChar == '.'));
-                    isExponent = true;
-                } else if ((c == '-') || (c == '+')) {
-                    isError = (Character.toLowerCase(prevChar) != 'e');
-                } else {
-                    break;
+                if (blockStart >= limit) {
+                    position = limit;
+                    tokenLength = position - tokenStart;
+                    throw new JsonException("Expected end of %s, got end of input:line %d"
+                            .formatted((type == JsonTokenType.OBJECT_START) ? "object" : "array", lineIndex));
                 }
 
-                cw.append((char) c);
-                prevChar = c;
+                // Tail block is padded with whitespace
+                Arrays.fill(padding, (byte) ' ');
+                System.arraycopy(buffer, blockStart, padding, 0, limit - blockStart);
+                index.index(padding, 0);
+                isLast = true;
+            } else {
+                index.index(buffer, blockStart);
+            }
 
-                if (isError) {
-                    break;
+            long brackets = index.opens | index.closes;
+            while (brackets != 0) {
+                long bracket = brackets & -brackets;
+                depth += ((index.opens & bracket) != 0) ? 1 : -1;
+
+                if (depth == 0) {
+                    lineIndex += Long.bitCount(index.newlines & (bracket - 1));
+                    position = blockStart + Long.numberOfTrailingZeros(bracket) + 1;
+                    tokenLength = position - tokenStart;
+                    return;
                 }
+
+                brackets ^= bracket;
             }
 
-            if (Character.isDigit(c)) {
-                cw.append((char) c);
-            } else {
-                switch (Character.toLowerCase(c)) {
-                    case '.':
-                    case 'e':
-                    case '+':
-                    case '-':
-                        isError = true;
-                        break;
-                    default:
-                        sr.reset();
-                        break;
+            lineIndex += Long.bitCount(index.newlines);
+            blockStart += JsonStructuralIndex.BLOCK_SIZE;
+
+            if (isLast) {
+                blockStart = limit;
+            }
+        }
+    }
+
+    /**
+     * Consumes a literal, a literal fully inside the buffer is matched by a single
+     * compare of its last 4 bytes against {@code tail}.
+     */
+    private void lexLiteral(byte[] literal, int tail) throws IOException, JsonException {
+        int end = position + literal.length;
+        if (end <= limit && JsonStructuralIndex.intAt(buffer, end - 4) == tail) {
+            position = end;
+            tokenLength = literal.length;
+            return;
+        }
+
+        // Spans a refill or does not match, the slow path reports the offending text
+        for (byte b : literal) {
+            if ((position >= limit && !fill()) || buffer[position] != b) {
+                tokenLength = position - tokenStart;
+                throw new JsonException("Unexpected token '%s':line %d".formatted(tokenText(), lineIndex));
+            }
+            position++;
+        }
+
+        tokenLength = literal.length;
+    }
+
+    /**
+     * Consumes a number token as defined by the JSON grammar,
+     * {@code -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?}. The significand and
+     * exponent are accumulated on the way.
+     */
+    private void lexNumber() throws IOException, JsonException {
+        numberSignificand = 0;
+        numberDigits = 0;
+        numberExponent = 0;
+        int c = peekByte();
+
+        if (c == '-') {
+            tokenFlags |= FLAG_NEGATIVE;
+            position++;
+            c = peekByte();
+        }
+
+        if (c == '0') {
+            position++;
+        } else if (!lexDigits(false)) {
+            throw numberException();
+        }
+
+        if (peekByte() == '.') {
+            position++;
+            tokenFlags |= FLAG_DECIMAL;
+            if (!lexDigits(true)) {
+                throw numberException();
+            }
+        }
+
+        c = peekByte();
+        if (c == 'e' || c == 'E') {
+            position++;
+            tokenFlags |= FLAG_DECIMAL;
+            c = peekByte();
+            if (c == '+' || c == '-') {
+                position++;
+            }
+
+            if (!lexExponent(c == '-')) {
+                throw numberException();
+            }
+        }
+
+        tokenLength = position - tokenStart;
+    }
+
+    /**
+     * Consumes a run of significand digits.
+     *
+     * @param isFraction true if the digits follow the decimal point
+     * @return true if at least one digit is consumed
+     */
+    private boolean lexDigits(boolean isFraction) throws IOException {
+        int start = position - tokenStart;
+
+        do {
+            while (position < limit) {
+                int d = buffer[position] - '0';
+
+                if (d < 0 || d > 9) {
+                    return (position - tokenStart > start);
+                }
+
+                if (numberDigits < MAX_SIGNIFICAND_DIGITS) {
+                    numberSignificand = numberSignificand * 10 + d;
+                    // Leading zeros are not significant
+                    if (numberSignificand != 0) {
+                        numberDigits++;
+                    }
+                    if (isFraction) {
+                        numberExponent--;
+                    }
+                } else {
+                    tokenFlags |= FLAG_TRUNCATED;
+                    if (!isFraction) {
+                        numberExponent++;
+                    }
                 }
+                position++;
             }
+        } while (fill());
+
+        return (position - tokenStart > start);
+    }
+
+    /**
+     * Consumes the digits of an exponent and adds them to the number exponent.
+     *
+     * @return true if at least one digit is consumed
+     */
+    private boolean lexExponent(boolean isNegative) throws IOException {
+        int start = position - tokenStart;
+        int exponent = 0;
+
+        do {
+            while (position < limit) {
+                int d = buffer[position] - '0';
 
-            if (hasSign && (cw.size() < 2)) {
-                isError = true;
+                if (d < 0 || d > 9) {
+                    numberExponent += (isNegative ? -exponent : exponent);
+                    return (position - tokenStart > start);
+                }
+
+                // Far beyond the double range, saturate instead of overflowing
+                exponent = Math.min(exponent * 10 + d, 100_000);
+                position++;
             }
+        } while (fill());
+
+        numberExponent += (isNegative ? -exponent : exponent);
+        return (position - tokenStart > start);
+    }
+
+    private JsonException numberException() throws IOException {
+        // Include the offending byte in the message
+        if (peekByte() != -1) {
+            position++;
+        }
+
+        tokenLength = position - tokenStart;
+        return new JsonException("Expected a number, got '%s':line %d".formatted(tokenText(), lineIndex));
+    }
+
+    /**
+     * Returns the byte at the current position without consuming it, or -1 at
+     * the end of the source.
+     */
+    private int peekByte() throws IOException {
+        if (position >= limit && !fill()) {
+            return -1;
         }
 
-        if (isError) {
-            throw new JsonException("Expected a number, got '%s':line %d".formatted(cw.toString(), lineIndex));
+        return (buffer[position] & 0xFF);
+    }
+
+    /**
+     * Reads more of the source into the buffer, bytes of the current token are
+     * kept.
+     */
+    private boolean fill() throws IOException {
+        if (source == null) {
+            return false;
+        }
+
+        int keep = tokenStart;
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, limit - keep);
+            limit -= keep;
+            position -= keep;
+            tokenStart -= keep;
+        }
+
+        if (buffer.length - limit < MIN_READ_SIZE) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        int n;
+        while ((n = source.read(buffer, limit, buffer.length - limit)) == 0) {
+            // Source made no progress, try again
+        }
+
+        if (n == -1) {
+            return false;
+        }
+
+        limit += n;
+        return true;
+    }
+
+    /**
+     * Keeps the buffer of the current source as scratch buffer, unless it grew
+     * too large to hold on to.
+     */
+    private void retainScratch() {
+        if (source != null) {
+            scratch = buffer;
         }
 
-        if (cw.size() >= 1) {
-            return new JsonToken(cw.toString(), JsonTokenType.NUMBER);
+        if (scratch != null && scratch.length > MAX_RETAINED_SIZE) {
+            scratch = null;
         }
+    }
 
-        sr.reset();
-        return null;
+    /**
+     * Encodes {@code source} to UTF-8 into {@code bytes}, unpaired surrogates are
+     * encoded as '?' like {@link String#getBytes}.
+     *
+     * @return number of bytes written
+     */
+    private static int encodeUtf8(CharSequence source, byte[] bytes) {
+        int n = 0;
+        int length = source.length();
+
+        for (int i = 0; i < length; ++i) {
+            char c = source.charAt(i);
+
+            if (c < 0x80) {
+                bytes[n++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[n++] = (byte) (0xC0 | (c >> 6));
+                bytes[n++] = (byte) (0x80 | (c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                bytes[n++] = (byte) (0xE0 | (c >> 12));
+                bytes[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[n++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(source.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, source.charAt(++i));
+                bytes[n++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[n++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[n++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[n++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                bytes[n++] = '?';
+            }
+        }
+
+        return n;
     }
 
+    private void skipByteOrderMark() {
+        tokenStart = position;
+
+        try {
+            for (int b : BYTE_ORDER_MARK) {
+                if (peekByte() != b) {
+                    position = tokenStart;
+                    return;
+                }
+                position++;
+            }
+        } catch (IOException io) {
+            throw new JsonException("lexer: " + io.getMessage(), io);
+        }
+
+        tokenStart = position;
+    }
 }
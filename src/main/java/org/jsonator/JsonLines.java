@@ -0,0 +1,226 @@
+/*
+ *
+ * Copyright (c) 2023 Tony Medhat
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jsonator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams the records of newline delimited JSON (NDJSON, JSON Lines). Records
+ * are read one at a time through a single lexer, so memory is bounded by the
+ * largest record rather than the whole input.
+ */
+final class JsonLines {
+
+    // Ranges below this size are not split any further
+    private static final long MIN_SPLIT_SIZE = 1L << 20;
+
+    private JsonLines() {
+    }
+
+    /**
+     * Returns a sequential stream of the records of {@code source}, the source is
+     * closed with the stream.
+     */
+    static <T> Stream<T> stream(JsonSource source, TypeToken<T> type, JsonSerializerOptions options) {
+        RecordIterator<T> records = new RecordIterator<>(new JsonLexer(source), type, options);
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(records,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> close(source));
+    }
+
+    /**
+     * Returns a stream of the records of an open file, the stream splits the file
+     * on line boundaries when it is run in parallel. The channel is closed with
+     * the stream.
+     */
+    static <T> Stream<T> stream(FileChannel channel, TypeToken<T> type, JsonSerializerOptions options)
+            throws IOException {
+        JsonConverter<?> converter = converter(type, options);
+        FileSpliterator<T> spliterator = new FileSpliterator<>(channel, 0, channel.size(), type, converter,
+                options);
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> close(channel));
+    }
+
+    private static JsonConverter<?> converter(TypeToken<?> type, JsonSerializerOptions options) {
+        if (!options.hasConverter(type)) {
+            throw new JsonException("'%s' can not deserialize".formatted(type.getType().getTypeName()));
+        }
+
+        return options.getConverter(type);
+    }
+
+    private static void close(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            throw new JsonException("lines: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deserializes the records of a lexer one at a time with a converter that is
+     * resolved once.
+     */
+    private static class RecordIterator<T> implements Iterator<T> {
+        private final JsonLexer lexer;
+        private final TypeToken<T> type;
+        private final JsonReader reader;
+        private final JsonConverter<?> converter;
+        private final JsonSerializerOptions options;
+
+        RecordIterator(JsonLexer lexer, TypeToken<T> type, JsonSerializerOptions options) {
+            this(lexer, type, converter(type, options), options);
+        }
+
+        RecordIterator(JsonLexer lexer, TypeToken<T> type, JsonConverter<?> converter,
+                JsonSerializerOptions options) {
+            this.lexer = lexer;
+            this.lexer.setCanonicalValues(options.CanonicalStrings);
+            this.reader = new JsonReader(lexer, options.MaxDepth);
+            this.type = type;
+            this.converter = converter;
+            this.options = options;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return lexer.hasToken();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!lexer.hasToken()) {
+                throw new NoSuchElementException("No more records");
+            }
+
+            return (T) converter.deserialize(reader, type, options);
+        }
+    }
+
+    /**
+     * Traverses the records within a byte range of a file. Splitting cuts the
+     * range after the line feed nearest to its middle, which is a record boundary
+     * as long as every record is on a line of its own.
+     */
+    private static class FileSpliterator<T> implements Spliterator<T> {
+        private final FileChannel channel;
+        private final TypeToken<T> type;
+        private final JsonConverter<?> converter;
+        private final JsonSerializerOptions options;
+        private long start;
+        private final long end;
+
+        private JsonSource source;
+        private RecordIterator<T> records;
+
+        FileSpliterator(FileChannel channel, long start, long end, TypeToken<T> type, JsonConverter<?> converter,
+                JsonSerializerOptions options) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.type = type;
+            this.converter = converter;
+            this.options = options;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (records == null) {
+                source = JsonSource.of(channel, start, end);
+                records = new RecordIterator<>(new JsonLexer(source), type, converter, options);
+            }
+
+            if (!records.hasNext()) {
+                close(source);
+                return false;
+            }
+
+            action.accept(records.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (records != null || end - start < MIN_SPLIT_SIZE) {
+                return null;
+            }
+
+            long split = nextLine(start + (end - start) / 2);
+            if (split < 0 || split >= end) {
+                return null;
+            }
+
+            FileSpliterator<T> prefix = new FileSpliterator<>(channel, start, split, type, converter, options);
+            start = split;
+            return prefix;
+        }
+
+        /**
+         * Returns the offset after the first line feed at or after
+         * {@code offset}, or -1 if there is none before the end of the range.
+         */
+        private long nextLine(long offset) {
+            ByteBuffer bytes = ByteBuffer.allocate(4096);
+
+            try {
+                while (offset < end) {
+                    bytes.clear().limit((int) Math.min(bytes.capacity(), end - offset));
+                    int n = channel.read(bytes, offset);
+                    if (n <= 0) {
+                        return -1;
+                    }
+
+                    for (int i = 0; i < n; ++i) {
+                        if (bytes.get(i) == '\n') {
+                            return offset + i + 1;
+                        }
+                    }
+                    offset += n;
+                }
+            } catch (IOException io) {
+                throw new JsonException("lines: " + io.getMessage(), io);
+            }
+
+            return -1;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (records == null) ? end - start : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL;
+        }
+    }
+}
@@ -25,6 +25,10 @@ package org.jsonator;
  * @author Tony Medhat
  */
 public class JsonNull extends JsonElement {
+
+    // Shared by parsers, every JsonNull is equal
+    static final JsonNull INSTANCE = new JsonNull();
+
     /**
      * Returns true if other object is equal to this object, otherwise false.
      *
@@ -0,0 +1,582 @@
+/*
+ *
+ * Copyright (c) 2023 Tony Medhat
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jsonator;
+
+import java.math.BigInteger;
+
+/**
+ * Formats numbers as ASCII into a reusable buffer without intermediate
+ * strings. Integers are written two digits at a time. Doubles and floats are
+ * written with the Schubfach algorithm, which finds the shortest decimal that
+ * rounds back to the same value, in the format of {@link Double#toString} and
+ * {@link Float#toString}: plain notation within [10^-3, 10^7) and computerized
+ * scientific notation otherwise, always with a fraction digit.
+ * <p>
+ * Schubfach is described in R. Giulietti, "The Schubfach way to render
+ * doubles", 2020, and is the algorithm of {@code Double.toString} since JDK
+ * 19.
+ */
+final class JsonNumberWriter {
+
+    // Longest output, "-9223372036854775808" and "-2.2250738585072014E-308"
+    static final int MAX_LENGTH = 24;
+
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    // Precision, least exponent, hidden bit and fraction mask of doubles and floats
+    private static final int DOUBLE_P = 53;
+    private static final int DOUBLE_Q_MIN = -1074;
+    private static final long DOUBLE_C_MIN = 1L << (DOUBLE_P - 1);
+    private static final long DOUBLE_T_MASK = DOUBLE_C_MIN - 1;
+    private static final int DOUBLE_BQ_MASK = 0x7FF;
+    private static final int DOUBLE_C_TINY = 3;
+    private static final int DOUBLE_H = 17;
+
+    private static final int FLOAT_P = 24;
+    private static final int FLOAT_Q_MIN = -149;
+    private static final int FLOAT_C_MIN = 1 << (FLOAT_P - 1);
+    private static final int FLOAT_T_MASK = FLOAT_C_MIN - 1;
+    private static final int FLOAT_BQ_MASK = 0xFF;
+    private static final int FLOAT_C_TINY = 8;
+    private static final int FLOAT_H = 9;
+
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final long MASK_32 = (1L << 32) - 1;
+    private static final int MASK_28 = (1 << 28) - 1;
+
+    // 126 bit approximations g = floor(10^-k 2^(125 - flog2pow10(-k))) + 1,
+    // split into their high and low 63 bits
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long[] G1 = new long[K_MAX - K_MIN + 1];
+    private static final long[] G0 = new long[K_MAX - K_MIN + 1];
+
+    static {
+        for (int i = 0; i < 100; ++i) {
+            DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; ++i) {
+            POWERS_OF_TEN[i] = 10 * POWERS_OF_TEN[i - 1];
+        }
+
+        BigInteger mask = BigInteger.valueOf(MASK_63);
+
+        for (int k = K_MIN; k <= K_MAX; ++k) {
+            int shift = 125 - flog2pow10(-k);
+            BigInteger g;
+
+            if (k <= 0) {
+                BigInteger power = BigInteger.TEN.pow(-k);
+                g = (shift >= 0) ? power.shiftLeft(shift) : power.shiftRight(-shift);
+            } else {
+                g = BigInteger.ONE.shiftLeft(shift).divide(BigInteger.TEN.pow(k));
+            }
+            g = g.add(BigInteger.ONE);
+
+            G1[k - K_MIN] = g.shiftRight(63).longValue();
+            G0[k - K_MIN] = g.and(mask).longValue();
+        }
+    }
+
+    private final byte[] bytes = new byte[MAX_LENGTH];
+    private int index;
+
+    /**
+     * Returns the formatted chars, valid until the next write.
+     */
+    byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * Formats {@code v} in decimal.
+     *
+     * @return length of the formatted number
+     */
+    int writeLong(long v) {
+        index = 0;
+
+        if (v < 0) {
+            append('-');
+
+            if (v == Long.MIN_VALUE) {
+                // 9223372036854775808 has no positive long
+                appendDigits(-(v / 10));
+                append('8');
+                return index;
+            }
+
+            v = -v;
+        }
+
+        appendDigits(v);
+        return index;
+    }
+
+    /**
+     * Formats {@code v} as the shortest decimal that rounds to it, like
+     * {@link Double#toString(double)}.
+     *
+     * @return length of the formatted number
+     */
+    int writeDouble(double v) {
+        index = 0;
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & DOUBLE_T_MASK;
+        int bq = (int) (bits >>> (DOUBLE_P - 1)) & DOUBLE_BQ_MASK;
+
+        if (bq == DOUBLE_BQ_MASK) {
+            return appendSpecial(t != 0, bits < 0);
+        }
+
+        if (bits < 0) {
+            append('-');
+        }
+
+        if (bq != 0) {
+            // Normal, v = c 2^q with q = -mq
+            int mq = -DOUBLE_Q_MIN + 1 - bq;
+            long c = DOUBLE_C_MIN | t;
+
+            // Integers below 2^53 are their own shortest decimal
+            if (0 < mq && mq < DOUBLE_P) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    doubleChars(f, 0);
+                    return index;
+                }
+            }
+
+            doubleDecimal(-mq, c, 0);
+        } else if (t != 0) {
+            // Subnormal, the tiniest are scaled up by 10 for precision
+            if (t < DOUBLE_C_TINY) {
+                doubleDecimal(DOUBLE_Q_MIN, 10 * t, -1);
+            } else {
+                doubleDecimal(DOUBLE_Q_MIN, t, 0);
+            }
+        } else {
+            appendZero();
+        }
+
+        return index;
+    }
+
+    /**
+     * Formats {@code v} as the shortest decimal that rounds to it, like
+     * {@link Float#toString(float)}.
+     *
+     * @return length of the formatted number
+     */
+    int writeFloat(float v) {
+        index = 0;
+        int bits = Float.floatToRawIntBits(v);
+        int t = bits & FLOAT_T_MASK;
+        int bq = (bits >>> (FLOAT_P - 1)) & FLOAT_BQ_MASK;
+
+        if (bq == FLOAT_BQ_MASK) {
+            return appendSpecial(t != 0, bits < 0);
+        }
+
+        if (bits < 0) {
+            append('-');
+        }
+
+        if (bq != 0) {
+            int mq = -FLOAT_Q_MIN + 1 - bq;
+            int c = FLOAT_C_MIN | t;
+
+            if (0 < mq && mq < FLOAT_P) {
+                int f = c >> mq;
+                if (f << mq == c) {
+                    floatChars(f, 0);
+                    return index;
+                }
+            }
+
+            floatDecimal(-mq, c, 0);
+        } else if (t != 0) {
+            if (t < FLOAT_C_TINY) {
+                floatDecimal(FLOAT_Q_MIN, 10 * t, -1);
+            } else {
+                floatDecimal(FLOAT_Q_MIN, t, 0);
+            }
+        } else {
+            appendZero();
+        }
+
+        return index;
+    }
+
+    /**
+     * Finds the shortest decimal in the rounding interval of {@code c 2^q} and
+     * formats it, {@code dk} corrects the exponent of scaled subnormals.
+     */
+    private void doubleDecimal(int q, long c, int dk) {
+        int out = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+
+        // The interval is asymmetric at powers of two
+        if (c != DOUBLE_C_MIN || q == DOUBLE_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+
+        int h = q + flog2pow10(-k) + 2;
+        long g1 = G1[k - K_MIN];
+        long g0 = G0[k - K_MIN];
+
+        long vb = roundToOdd(g1, g0, cb << h);
+        long vbl = roundToOdd(g1, g0, cbl << h);
+        long vbr = roundToOdd(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+
+        // A multiple of 10 in the interval needs one digit less
+        if (s >= 100) {
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+
+            if (upin != wpin) {
+                doubleChars(upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+
+        if (uin != win) {
+            doubleChars(uin ? s : t, k + dk);
+            return;
+        }
+
+        // Both in the interval, the closest wins and ties go to even
+        long cmp = vb - ((s + t) << 1);
+        doubleChars((cmp < 0 || (cmp == 0 && (s & 1) == 0)) ? s : t, k + dk);
+    }
+
+    private void floatDecimal(int q, int c, int dk) {
+        int out = c & 1;
+        long cb = (long) c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+
+        if (c != FLOAT_C_MIN || q == FLOAT_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+
+        int h = q + flog2pow10(-k) + 33;
+        long g = G1[k - K_MIN] + 1;
+
+        int vb = roundToOdd(g, cb << h);
+        int vbl = roundToOdd(g, cbl << h);
+        int vbr = roundToOdd(g, cbr << h);
+
+        int s = vb >> 2;
+
+        if (s >= 100) {
+            int sp10 = 10 * (int) (s * 1_717_986_919L >>> 34);
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+
+            if (upin != wpin) {
+                floatChars(upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+
+        if (uin != win) {
+            floatChars(uin ? s : t, k + dk);
+            return;
+        }
+
+        int cmp = vb - ((s + t) << 1);
+        floatChars((cmp < 0 || (cmp == 0 && (s & 1) == 0)) ? s : t, k + dk);
+    }
+
+    /**
+     * Formats {@code f 10^e}, {@code f} has at most 17 digits.
+     */
+    private void doubleChars(long f, int e) {
+        // Normalize to 17 digits, f 10^(e - 17) = 0.f 10^e
+        int length = flog10pow2(Long.SIZE - Long.numberOfLeadingZeros(f));
+        if (f >= POWERS_OF_TEN[length]) {
+            length++;
+        }
+
+        f *= POWERS_OF_TEN[DOUBLE_H - length];
+        e += length;
+
+        // Split into the leading digit h and two groups of 8 digits, m and l
+        long hm = Math.multiplyHigh(f, 193_428_131_138_340_668L) >>> 20;
+        int l = (int) (f - 100_000_000L * hm);
+        int h = (int) (hm * 1_441_151_881L >>> 57);
+        int m = (int) (hm - 100_000_000 * h);
+
+        if (0 < e && e <= 7) {
+            appendPlain(h, m, e);
+            appendLowDigits(l);
+        } else if (-3 < e && e <= 0) {
+            appendFraction(h, m, e);
+            appendLowDigits(l);
+        } else {
+            appendDigit(h);
+            append('.');
+            append8Digits(m);
+            appendLowDigits(l);
+            appendExponent(e - 1);
+        }
+    }
+
+    /**
+     * Formats {@code f 10^e}, {@code f} has at most 9 digits.
+     */
+    private void floatChars(int f, int e) {
+        int length = flog10pow2(Integer.SIZE - Integer.numberOfLeadingZeros(f));
+        if (f >= POWERS_OF_TEN[length]) {
+            length++;
+        }
+
+        f *= (int) POWERS_OF_TEN[FLOAT_H - length];
+        e += length;
+
+        // Split into the leading digit h and a group of 8 digits l
+        int h = (int) (f * 1_441_151_881L >>> 57);
+        int l = f - 100_000_000 * h;
+
+        if (0 < e && e <= 7) {
+            appendPlain(h, l, e);
+            removeTrailingZeroes();
+        } else if (-3 < e && e <= 0) {
+            appendFraction(h, l, e);
+            removeTrailingZeroes();
+        } else {
+            appendDigit(h);
+            append('.');
+            append8Digits(l);
+            removeTrailingZeroes();
+            appendExponent(e - 1);
+        }
+    }
+
+    /**
+     * Appends {@code h} and the 8 digits of {@code m} with the point after the
+     * first {@code e} digits, 0 < e <= 7.
+     */
+    private void appendPlain(int h, int m, int e) {
+        appendDigit(h);
+
+        int y = scaledDigits(m);
+        int i = 1;
+
+        for (; i < e; ++i) {
+            int t = 10 * y;
+            appendDigit(t >>> 28);
+            y = t & MASK_28;
+        }
+
+        append('.');
+        for (; i <= 8; ++i) {
+            int t = 10 * y;
+            appendDigit(t >>> 28);
+            y = t & MASK_28;
+        }
+    }
+
+    /**
+     * Appends {@code h} and the 8 digits of {@code m} after "0." and -e zeroes,
+     * -3 < e <= 0.
+     */
+    private void appendFraction(int h, int m, int e) {
+        append('0');
+        append('.');
+
+        for (; e < 0; ++e) {
+            append('0');
+        }
+
+        appendDigit(h);
+        append8Digits(m);
+    }
+
+    private void appendLowDigits(int l) {
+        if (l != 0) {
+            append8Digits(l);
+        }
+
+        removeTrailingZeroes();
+    }
+
+    private void append8Digits(int m) {
+        int y = scaledDigits(m);
+
+        for (int i = 0; i < 8; ++i) {
+            int t = 10 * y;
+            appendDigit(t >>> 28);
+            y = t & MASK_28;
+        }
+    }
+
+    /**
+     * Returns {@code a 2^28 / 10^8} rounded up, its digits are extracted left to
+     * right by multiplying by 10.
+     */
+    private static int scaledDigits(int a) {
+        return (int) (Math.multiplyHigh((long) (a + 1) << 28, 193_428_131_138_340_668L) >>> 20) - 1;
+    }
+
+    private void removeTrailingZeroes() {
+        while (bytes[index - 1] == '0') {
+            index--;
+        }
+
+        // Keep the digit right after the point
+        if (bytes[index - 1] == '.') {
+            index++;
+        }
+    }
+
+    private void appendExponent(int e) {
+        append('E');
+
+        if (e < 0) {
+            append('-');
+            e = -e;
+        }
+
+        appendDigits(e);
+    }
+
+    private void appendZero() {
+        append('0');
+        append('.');
+        append('0');
+    }
+
+    private int appendSpecial(boolean isNaN, boolean isNegative) {
+        String special = isNaN ? "NaN" : isNegative ? "-Infinity" : "Infinity";
+
+        for (int i = 0; i < special.length(); ++i) {
+            append(special.charAt(i));
+        }
+
+        return index;
+    }
+
+    /**
+     * Appends the decimal digits of {@code v}, two at a time from the right.
+     */
+    private void appendDigits(long v) {
+        int length = 1;
+        while (length < POWERS_OF_TEN.length && v >= POWERS_OF_TEN[length]) {
+            length++;
+        }
+
+        int i = index + length;
+        index = i;
+
+        while (v >= 100) {
+            long q = v / 100;
+            int r = (int) (v - 100 * q);
+            v = q;
+            bytes[--i] = DIGIT_PAIRS[2 * r + 1];
+            bytes[--i] = DIGIT_PAIRS[2 * r];
+        }
+
+        if (v >= 10) {
+            bytes[--i] = DIGIT_PAIRS[2 * (int) v + 1];
+            bytes[--i] = DIGIT_PAIRS[2 * (int) v];
+        } else {
+            bytes[--i] = (byte) ('0' + v);
+        }
+    }
+
+    private void appendDigit(int d) {
+        bytes[index++] = (byte) ('0' + d);
+    }
+
+    private void append(char c) {
+        bytes[index++] = (byte) c;
+    }
+
+    /**
+     * Returns the middle 64 bits of {@code g cp} rounded to odd, g = g1 2^63 + g0.
+     */
+    private static long roundToOdd(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (((z & MASK_63) + MASK_63) >>> 63);
+    }
+
+    private static int roundToOdd(long g, long cp) {
+        long x1 = Math.multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int) (vbp | (((x1 & MASK_32) + MASK_32) >>> 32));
+    }
+
+    /**
+     * Returns floor(e log10(2)), |e| <= 5456721.
+     */
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    /**
+     * Returns floor(e log10(2) + log10(3/4)), |e| <= 5456721.
+     */
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) ((e * 661_971_961_083L + -274_743_187_321L) >> 41);
+    }
+
+    /**
+     * Returns floor(e log2(10)), |e| <= 1233410.
+     */
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+}
@@ -19,18 +19,34 @@
 
 package org.jsonator;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Container to hold JSON object.
+ * <p>
+ * A lazy JSON object, as returned by {@link #lazy(byte[])}, only records the
+ * span of its source and parses its members on first access. Nested objects
+ * and arrays are lazy as well, subtrees that are never accessed are skipped by
+ * bracket matching and are not validated. Lazy JSON objects are not safe for
+ * concurrent access until their members are parsed.
  *
  * @author Tony Medhat
  */
 public class JsonObject extends JsonElement {
     private HashMap<String, JsonElement> members;
 
+    // Source span of a lazy JSON object, null once members are parsed
+    private byte[] lazySource;
+    private int lazyOffset;
+    private int lazyLength;
+
     /** Default constructor. */
     public JsonObject() {
         super();
@@ -47,13 +63,45 @@ public class JsonObject extends JsonElement {
         fromJson(source);
     }
 
+    JsonObject(byte[] source, int offset, int length) {
+        super();
+        lazySource = source;
+        lazyOffset = offset;
+        lazyLength = length;
+    }
+
+    /**
+     * Creates a lazy {@code JsonObject} from the given JSON, members are parsed on
+     * first access.
+     *
+     * @param source valid JSON object string
+     * @return lazy JsonObject of the given JSON string
+     * @throws JsonException if the JSON is not an object
+     */
+    public static JsonObject lazy(String source) {
+        return lazy(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a lazy {@code JsonObject} from the given UTF-8 encoded JSON, members
+     * are parsed on first access. The array is not copied and must not be modified
+     * while the JSON object is in use.
+     *
+     * @param source valid UTF-8 encoded JSON object
+     * @return lazy JsonObject of the given JSON
+     * @throws JsonException if the JSON is not an object
+     */
+    public static JsonObject lazy(byte[] source) {
+        return JsonParser.parseLazy(new JsonLexer(source)).getAsJsonObject();
+    }
+
     /**
      * Returns the number of members in this JSON objects.
      *
      * @return the number of members in this JSON object
      */
     public int size() {
-        return members.size();
+        return members().size();
     }
 
     /**
@@ -62,7 +110,7 @@ public class JsonObject extends JsonElement {
      * call returns.
      */
     public void clear() {
-        members.clear();
+        members().clear();
     }
 
     /**
@@ -71,7 +119,7 @@ public class JsonObject extends JsonElement {
      * @return true if this JSON object contains no member
      */
     public boolean isEmpty() {
-        return members.isEmpty();
+        return members().isEmpty();
     }
 
     /**
@@ -87,7 +135,7 @@ public class JsonObject extends JsonElement {
      * @return a set view of the keys contained in this JSON object
      */
     public Set<String> keySet() {
-        return members.keySet();
+        return members().keySet();
     }
 
     /**
@@ -103,7 +151,7 @@ public class JsonObject extends JsonElement {
      * @return a collection view of the values contained in this JSON object
      */
     public Collection<JsonElement> values() {
-        return members.values();
+        return members().values();
     }
 
     /**
@@ -114,13 +162,13 @@ public class JsonObject extends JsonElement {
      *         JSON object, as determined by the equals method; false otherwise.
      */
     public boolean containsKey(String key) {
-        if (members.containsKey(key)) {
+        if (members().containsKey(key)) {
             return true;
         }
 
         char[] str = key.toCharArray();
         str[0] = (Character.isUpperCase(str[0])) ? Character.toLowerCase(str[0]) : Character.toUpperCase(str[0]);
-        return members.containsKey(new String(str));
+        return members().containsKey(new String(str));
     }
 
     /**
@@ -130,7 +178,7 @@ public class JsonObject extends JsonElement {
      * @return true if this JSON object maps one or more keys to the specified value
      */
     public boolean containsValues(JsonElement element) {
-        return members.containsValue(element);
+        return members().containsValue(element);
     }
 
     /**
@@ -143,13 +191,13 @@ public class JsonObject extends JsonElement {
      *         object contains no mapping for the key
      */
     public JsonElement get(String key) {
-        if (members.containsKey(key)) {
-            return members.get(key);
+        if (members().containsKey(key)) {
+            return members().get(key);
         }
 
         char[] str = key.toCharArray();
         str[0] = (Character.isUpperCase(str[0])) ? Character.toLowerCase(str[0]) : Character.toUpperCase(str[0]);
-        return members.get(new String(str));
+        return members().get(new String(str));
     }
 
     /**
@@ -162,7 +210,7 @@ public class JsonObject extends JsonElement {
      *         it did not have one
      */
     public JsonElement put(String key, JsonElement element) {
-        return members.put(key, element);
+        return members().put(key, element);
     }
 
     /**
@@ -174,7 +222,7 @@ public class JsonObject extends JsonElement {
      *         null if the key did not have a mapping
      */
     public JsonElement remove(String key) {
-        return members.remove(key);
+        return members().remove(key);
     }
 
     /**
@@ -186,7 +234,7 @@ public class JsonObject extends JsonElement {
      * @return true if this collection changed as a result of the call
      */
     public boolean remove(String key, JsonElement element) {
-        return members.remove(key, element);
+        return members().remove(key, element);
     }
 
     /**
@@ -196,44 +244,139 @@ public class JsonObject extends JsonElement {
      * @return Parsed JsonObject of the given JSON string
      */
     public JsonObject fromJson(String source) {
-        JsonLexer lexer = new JsonLexer(source);
+        return fromJson(new JsonLexer(source));
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON to JsonObject.
+     *
+     * @param source valid UTF-8 encoded JSON
+     * @return Parsed JsonObject of the given JSON
+     */
+    public JsonObject fromJson(byte[] source) {
+        return fromJson(new JsonLexer(source));
+    }
+
+    /**
+     * Parses JSON to JsonObject keeping only the values selected by
+     * {@code projection}, every other value is skipped without being validated.
+     *
+     * @param source     valid JSON string
+     * @param projection paths of the values to parse
+     * @return Parsed JsonObject holding the selected values of the given JSON string
+     */
+    public JsonObject fromJson(String source, JsonProjection projection) {
+        return fromJson(new JsonLexer(source), projection);
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON to JsonObject keeping only the values selected by
+     * {@code projection}, every other value is skipped without being validated.
+     *
+     * @param source     valid UTF-8 encoded JSON
+     * @param projection paths of the values to parse
+     * @return Parsed JsonObject holding the selected values of the given JSON
+     */
+    public JsonObject fromJson(byte[] source, JsonProjection projection) {
+        return fromJson(new JsonLexer(source), projection);
+    }
+
+    /**
+     * Parses a UTF-8 encoded JSON file to JsonObject. The file is memory mapped
+     * rather than read into the heap.
+     *
+     * @param source path of a valid UTF-8 encoded JSON file
+     * @return Parsed JsonObject of the given JSON file
+     * @throws JsonException if the file can not be read
+     */
+    public JsonObject fromJson(Path source) {
+        try (JsonSource mappedSource = JsonSource.of(source)) {
+            return fromJson(new JsonLexer(mappedSource));
+        } catch (IOException io) {
+            throw new JsonException("'%s' can not be read, %s".formatted(source, io.getMessage()), io);
+        }
+    }
+
+    private HashMap<String, JsonElement> members() {
+        if (lazySource != null) {
+            JsonObject t = JsonParser.parseObject(new JsonLexer(lazySource, lazyOffset, lazyLength), true);
+            members = t.members;
+            lazySource = null;
+        }
+
+        return members;
+    }
+
+    private JsonObject fromJson(JsonLexer lexer) {
         JsonObject t = (JsonObject) JsonParser.parse(lexer);
         members = t.members;
+        lazySource = null;
+        return this;
+    }
+
+    private JsonObject fromJson(JsonLexer lexer, JsonProjection projection) {
+        JsonObject t = JsonParser.parseObject(lexer, projection, JsonSerializerOptions.DefaultOptions.MaxDepth);
+        members = t.members;
+        lazySource = null;
         return this;
     }
 
     /**
-     * Converts this JSON object to a JSON string.
+     * Converts this JSON object to a compact JSON string.
      *
      * @return JSON string of this JSON object
      */
     public String toJson() {
-        StringBuilder sb = new StringBuilder();
-        int i = 0;
-
-        sb.append("{ ");
-        for (String key : keySet()) {
-            if (i != 0) {
-                sb.append(", ");
-            }
-
-            sb.append("\"%s\" : ".formatted(key));
-
-            JsonElement element = get(key);
-            if (element.isJsonArray()) {
-                sb.append(element.getAsJsonArray().toJson());
-            } else if (element.isJsonObject()) {
-                sb.append(element.getAsJsonObject().toJson());
-            } else if (element.isJsonPrimitive()) {
-                sb.append(element.getAsJsonPrimitive().getAsString());
-            } else {
-                sb.append(element);
-            }
-
-            i++;
-        }
-        sb.append(" }");
+        return toJson(JsonSerializerOptions.DefaultOptions);
+    }
 
+    /**
+     * Converts this JSON object to a JSON string, escaped and indented as by
+     * {@link JsonSerializer#serialize(Object, JsonSerializerOptions)}.
+     *
+     * @param options serialization options
+     * @return JSON string of this JSON object
+     */
+    public String toJson(JsonSerializerOptions options) {
+        StringBuilder sb = new StringBuilder();
+        toJson(sb, options);
         return sb.toString();
     }
+
+    /**
+     * Writes this JSON object to {@code out} in a single pass over its tree,
+     * nested containers are written in place without intermediate strings.
+     * {@code out} is flushed if it is {@code Flushable}, it is not closed.
+     *
+     * @param out     destination of the JSON text
+     * @param options serialization options
+     * @throws JsonException if writing to {@code out} fails
+     */
+    public void toJson(Appendable out, JsonSerializerOptions options) {
+        JsonSerializer.serialize(this, out, options);
+    }
+
+    /**
+     * Writes this JSON object to {@code out} as UTF-8 encoded JSON in a single
+     * pass over its tree. {@code out} is flushed, it is not closed.
+     *
+     * @param out     destination of the UTF-8 encoded JSON
+     * @param options serialization options
+     * @throws JsonException if writing to {@code out} fails
+     */
+    public void toJson(OutputStream out, JsonSerializerOptions options) {
+        JsonSerializer.serialize(this, out, options);
+    }
+
+    /**
+     * Writes this JSON object to {@code writer}, iterating its members once.
+     */
+    void write(JsonWriter writer) {
+        writer.beginObject();
+        for (Map.Entry<String, JsonElement> member : members().entrySet()) {
+            writer.name(member.getKey());
+            writer.value(member.getValue());
+        }
+        writer.endObject();
+    }
 }
@@ -0,0 +1,284 @@
+/*
+ *
+ * Copyright (c) 2023 Tony Medhat
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jsonator;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.RecursiveAction;
+
+import org.jsonator.Converters.JsonConverterArray;
+import org.jsonator.Converters.JsonConverterDefaultCollection;
+
+/**
+ * Parses the elements of a large top-level JSON array in parallel. A
+ * sequential pre-scan finds the element boundaries, containers are skipped by
+ * bracket matching over the structural index, then chunks of elements are
+ * parsed, and deserialized, as fork/join tasks. Results are assembled in
+ * document order.
+ * <p>
+ * Tasks run in the fork/join pool of the calling thread, or in the common pool.
+ */
+final class JsonParallelParser {
+
+    // Smaller sources are not worth the pre-scan
+    private static final int MIN_SOURCE_SIZE = 1 << 20;
+    // Chunks of elements below this size are parsed in a single task
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    private JsonParallelParser() {
+    }
+
+    /**
+     * Returns true if {@code source} is large enough to be parsed in parallel and
+     * holds a top-level array.
+     */
+    static boolean isParallel(byte[] source, int offset, int length) {
+        if (length < MIN_SOURCE_SIZE) {
+            return false;
+        }
+
+        JsonLexer lexer = new JsonLexer(source, offset, length);
+        return (lexer.hasToken() && lexer.peek() == JsonTokenType.ARRAY_START);
+    }
+
+    /**
+     * Parses a top-level array with its elements parsed in parallel.
+     */
+    static JsonArray parseArray(byte[] source, int offset, int length, JsonSerializerOptions options) {
+        Elements spans = scan(source, offset, length, options);
+        Object[] elements = new Object[spans.count];
+
+        parse(spans, (from, to) -> {
+            JsonLexer lexer = new JsonLexer(source, 0, 0);
+            lexer.setCanonicalValues(options.CanonicalStrings);
+            for (int i = from; i < to; ++i) {
+                lexer.reset(source, spans.starts[i], spans.lengths[i]);
+                elements[i] = JsonParser.parse(lexer, options.MaxDepth - 1);
+            }
+        });
+
+        JsonArray jsonArray = new JsonArray();
+
+        jsonArray.addAll(Arrays.asList(Arrays.copyOf(elements, elements.length, JsonElement[].class)));
+        return jsonArray;
+    }
+
+    /**
+     * Deserializes a top-level array to {@code type}. Arrays and collections
+     * handled by the default converters have their elements deserialized in
+     * parallel, each through a {@code JsonReader} over its span as in sequential
+     * deserialization. Other types are converted from a {@code JsonArray} parsed
+     * in parallel.
+     */
+    static Object deserialize(byte[] source, int offset, int length, TypeToken<?> type,
+            JsonSerializerOptions options) {
+        if (!options.hasConverter(type)) {
+            throw new JsonException("'%s' can not deserialize".formatted(type.getType().getTypeName()));
+        }
+
+        JsonConverter<?> converter = options.getConverter(type);
+        Class<?> rawType = type.getRawType();
+        TypeToken<?> componentType = null;
+
+        if (converter.getClass() == JsonConverterArray.class) {
+            componentType = TypeToken.get(rawType.getComponentType());
+        } else if (converter.getClass() == JsonConverterDefaultCollection.class
+                && type.getType() instanceof ParameterizedType parameterizedType
+                && !Modifier.isAbstract(rawType.getModifiers())) {
+            componentType = TypeToken.get(parameterizedType.getActualTypeArguments()[0]);
+        }
+
+        if (componentType == null) {
+            JsonArray jsonArray = parseArray(source, offset, length, options);
+            return converter.deserialize(jsonArray, type, options);
+        }
+
+        if (!options.hasConverter(componentType)) {
+            throw new JsonException("'%s' can not deserialize".formatted(componentType.getType().getTypeName()));
+        }
+
+        JsonConverter<?> componentConverter = options.getConverter(componentType);
+        TypeToken<?> elementType = componentType;
+        Elements spans = scan(source, offset, length, options);
+        Object[] values = new Object[spans.count];
+
+        parse(spans, (from, to) -> {
+            try (JsonReader reader = JsonReaderPool.local()) {
+                for (int i = from; i < to; ++i) {
+                    reader.reset(source, spans.starts[i], spans.lengths[i], options);
+                    // Elements are nested in the top-level array
+                    reader.limitDepth(options.MaxDepth - 1);
+                    values[i] = componentConverter.deserialize(reader, elementType, options);
+                }
+            }
+        });
+
+        if (rawType.isArray()) {
+            Object array = Array.newInstance(rawType.getComponentType(), values.length);
+            for (int i = 0; i < values.length; ++i) {
+                Array.set(array, i, values[i]);
+            }
+
+            return array;
+        }
+
+        try {
+            @SuppressWarnings("unchecked")
+            Collection<Object> collection = (Collection<Object>) rawType.getConstructor().newInstance();
+            collection.addAll(Arrays.asList(values));
+            return collection;
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
+                | InvocationTargetException e) {
+            throw new UnsupportedOperationException(
+                    "'%s' can not be instantiated, %s".formatted(rawType.getName(), e.getMessage()));
+        }
+    }
+
+    private static Elements scan(byte[] source, int offset, int length, JsonSerializerOptions options) {
+        if (options.MaxDepth < 1) {
+            throw new JsonException("Maximum depth of %d exceeded".formatted(options.MaxDepth));
+        }
+
+        return scan(new JsonLexer(source, offset, length));
+    }
+
+    private static void parse(Elements elements, ChunkParser parser) {
+        new ParseTask(elements, 0, elements.count, parser).invoke();
+    }
+
+    /**
+     * Finds the span of every element of the array starting at the next token of
+     * {@code lexer}, and checks the separators between them.
+     */
+    private static Elements scan(JsonLexer lexer) {
+        Elements elements = new Elements();
+
+        if (lexer.nextToken() != JsonTokenType.ARRAY_START) {
+            throw new JsonException("Expected start-of-array bracket");
+        }
+
+        if (lexer.hasToken() && lexer.peek() == JsonTokenType.ARRAY_END) {
+            lexer.nextToken();
+            return elements;
+        }
+
+        while (true) {
+            if (!lexer.hasToken()) {
+                throw new JsonException("Expected value, got end of input");
+            }
+
+            JsonTokenType type = lexer.skipValue();
+            if (type == JsonTokenType.STRING) {
+                // String spans exclude their quotes
+                elements.add(lexer.tokenStart() - 1, lexer.tokenLength() + 2);
+            } else {
+                elements.add(lexer.tokenStart(), lexer.tokenLength());
+            }
+
+            if (!lexer.hasToken()) {
+                throw new JsonException("Expected end-of-array bracket");
+            }
+
+            JsonTokenType t = lexer.nextToken();
+            if (t == JsonTokenType.ARRAY_END) {
+                return elements;
+            }
+
+            if (t != JsonTokenType.COMMA) {
+                throw new JsonException(
+                        "Expected end-of-array bracket or comma, got: '%s'".formatted(lexer.tokenText()));
+            }
+
+            // Trailing comma is tolerated before the end of the array, as in JsonParser
+            if (lexer.hasToken() && lexer.peek() == JsonTokenType.ARRAY_END) {
+                lexer.nextToken();
+                return elements;
+            }
+        }
+    }
+
+    /**
+     * Spans of the elements of an array.
+     */
+    private static class Elements {
+        private int[] starts = new int[1024];
+        private int[] lengths = new int[1024];
+        private int count;
+
+        void add(int start, int length) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                lengths = Arrays.copyOf(lengths, count * 2);
+            }
+
+            starts[count] = start;
+            lengths[count] = length;
+            count++;
+        }
+    }
+
+    /**
+     * Parses the elements {@code from} to {@code to} of a chunk.
+     */
+    @FunctionalInterface
+    private interface ChunkParser {
+        void parse(int from, int to);
+    }
+
+    /**
+     * Parses the elements {@code from} to {@code to}, ranges larger than a chunk
+     * are split in halves.
+     */
+    private static class ParseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Elements elements;
+        private final int from;
+        private final int to;
+        private final ChunkParser parser;
+
+        ParseTask(Elements elements, int from, int to, ChunkParser parser) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+            this.parser = parser;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 0) {
+                return;
+            }
+
+            int size = elements.starts[to - 1] + elements.lengths[to - 1] - elements.starts[from];
+            if (to - from > 1 && size > MIN_CHUNK_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseTask(elements, from, middle, parser), new ParseTask(elements, middle, to, parser));
+                return;
+            }
+
+            parser.parse(from, to);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *
+ * Copyright (c) 2023 Tony Medhat
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jsonator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Writes the values of a large array in parallel. The values are split in
+ * ranges, each range is written to a buffer of its own as a fork/join task,
+ * then the buffers are copied in order.
+ * <p>
+ * Tasks run in the fork/join pool of the calling thread, or in the common pool.
+ * Values are written sequentially if the pool has a single worker.
+ */
+final class JsonParallelWriter {
+
+    // Smaller ranges are not worth a buffer of their own
+    private static final int MIN_CHUNK_SIZE = 1 << 10;
+    // Ranges per worker, workers done early take over remaining ranges
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private JsonParallelWriter() {
+    }
+
+    /**
+     * Writes {@code size} values of the current array of {@code writer}.
+     */
+    static void write(JsonWriter writer, int size, JsonWriter.ValueWriter values) {
+        ForkJoinPool pool = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+        int parallelism = pool.getParallelism();
+
+        if (parallelism < 2 || size <= MIN_CHUNK_SIZE) {
+            values.write(writer, 0, size);
+            return;
+        }
+
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, (size - 1) / (parallelism * CHUNKS_PER_WORKER) + 1);
+        JsonWriter[] chunks = new JsonWriter[(size - 1) / chunkSize + 1];
+
+        for (int i = 0; i < chunks.length; ++i) {
+            chunks[i] = writer.chunk(i == 0);
+        }
+
+        new WriteTask(chunks, values, size, chunkSize, 0, chunks.length).invoke();
+
+        for (int i = 0; i < chunks.length; ++i) {
+            writer.append(chunks[i]);
+            chunks[i] = null;
+        }
+    }
+
+    /**
+     * Writes the ranges {@code from} to {@code to}, several ranges are split in
+     * halves.
+     */
+    private static class WriteTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final JsonWriter[] chunks;
+        private final JsonWriter.ValueWriter values;
+        private final int size;
+        private final int chunkSize;
+        private final int from;
+        private final int to;
+
+        WriteTask(JsonWriter[] chunks, JsonWriter.ValueWriter values, int size, int chunkSize, int from, int to) {
+            this.chunks = chunks;
+            this.values = values;
+            this.size = size;
+            this.chunkSize = chunkSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new WriteTask(chunks, values, size, chunkSize, from, middle),
+                        new WriteTask(chunks, values, size, chunkSize, middle, to));
+                return;
+            }
+
+            values.write(chunks[from], from * chunkSize, Math.min(size, (from + 1) * chunkSize));
+        }
+    }
+}
@@ -19,165 +19,417 @@
 
 package org.jsonator;
 
-import java.util.Objects;
+import java.util.Arrays;
 
+/**
+ * Builds {@code JsonElement} trees out of lexer tokens. Nested containers are
+ * parsed iteratively, open containers are tracked on explicit stacks rather than
+ * the call stack so the nesting depth is only bounded by a configurable limit.
+ */
 class JsonParser {
 
+    private static final int CONTAINER_OBJECT = 0;
+    private static final int CONTAINER_ARRAY = 1;
+
     static JsonElement parse(JsonLexer lexer) {
+        return parse(lexer, JsonSerializerOptions.DefaultOptions.MaxDepth);
+    }
+
+    /**
+     * Parses the next value of {@code lexer}, an empty source parses to an empty
+     * object.
+     *
+     * @throws JsonException if containers are nested deeper than {@code maxDepth}
+     */
+    static JsonElement parse(JsonLexer lexer, int maxDepth) {
         if (!lexer.hasToken()) {
             return new JsonObject();
         }
 
-        JsonToken token = lexer.peek();
-        if (token.type == JsonTokenType.OBJECT_START) {
-            return parseObject(lexer);
-        } else if (token.type == JsonTokenType.ARRAY_START) {
-            return parseArray(lexer);
-        } else {
-            return parseElement(lexer.nextToken());
+        return parseValue(lexer, false, maxDepth);
+    }
+
+    /**
+     * Parses the next value of {@code lexer}, objects and arrays are returned
+     * lazy and are only parsed on first access.
+     */
+    static JsonElement parseLazy(JsonLexer lexer) {
+        if (!lexer.hasToken()) {
+            return new JsonObject();
+        }
+
+        JsonTokenType type = lexer.peek();
+        if (type == JsonTokenType.OBJECT_START || type == JsonTokenType.ARRAY_START) {
+            return skipContainer(lexer);
         }
+
+        return parseElement(lexer.nextToken(), lexer);
+    }
+
+    static JsonElement parseValue(JsonLexer lexer) {
+        return parseValue(lexer, false, JsonSerializerOptions.DefaultOptions.MaxDepth);
+    }
+
+    static JsonElement parseValue(JsonLexer lexer, int maxDepth) {
+        return parseValue(lexer, false, maxDepth);
     }
 
     static JsonObject parseObject(JsonLexer lexer) {
-        JsonObject jsonObject = new JsonObject();
-        JsonToken t = null;
+        return parseObject(lexer, false);
+    }
 
+    /**
+     * Parses the next object of {@code lexer}, nested objects and arrays are
+     * lazy if {@code isLazy} is true.
+     */
+    static JsonObject parseObject(JsonLexer lexer, boolean isLazy) {
         if (!lexer.hasToken()) {
-            return jsonObject;
+            return new JsonObject();
         }
 
-        if (lexer.nextToken().type != JsonTokenType.OBJECT_START) {
+        if (lexer.peek() != JsonTokenType.OBJECT_START) {
             throw new JsonException("Expected start-of-object bracket");
         }
 
-        while (lexer.hasToken() && ((t = lexer.nextToken()).type != JsonTokenType.OBJECT_END)) {
-            // Remove quotes
-            String key = t.value.substring(1, t.value.length() - 1);
+        return (JsonObject) parseValue(lexer, isLazy, JsonSerializerOptions.DefaultOptions.MaxDepth);
+    }
 
-            if (t.type != JsonTokenType.STRING) {
-                throw new JsonException("Expected string, got: '%s'".formatted(t.value));
-            }
+    static JsonArray parseArray(JsonLexer lexer) {
+        return parseArray(lexer, false);
+    }
 
-            t = lexer.nextToken();
-            if (t.type != JsonTokenType.COLON) {
-                throw new JsonException("Expected colon, got: '%s'".formatted(t.value));
-            }
+    /**
+     * Parses the next array of {@code lexer}, nested objects and arrays are lazy
+     * if {@code isLazy} is true.
+     */
+    static JsonArray parseArray(JsonLexer lexer, boolean isLazy) {
+        return parseArray(lexer, isLazy, JsonSerializerOptions.DefaultOptions.MaxDepth);
+    }
 
-            // Extract Value
-            t = lexer.nextToken();
-            if (t.type == JsonTokenType.OBJECT_START) {
-                lexer.ungetToken();
-                JsonObject j = parseObject(lexer);
-                jsonObject.put(key, j);
-            } else if (t.type == JsonTokenType.ARRAY_START) {
-                lexer.ungetToken();
-                JsonArray j = parseArray(lexer);
-                jsonObject.put(key, j);
-            } else {
-                JsonElement e = parseElement(t);
-                jsonObject.put(key, e);
-            }
+    static JsonArray parseArray(JsonLexer lexer, boolean isLazy, int maxDepth) {
+        if (!lexer.hasToken()) {
+            return new JsonArray();
+        }
 
-            t = lexer.nextToken();
+        if (lexer.peek() != JsonTokenType.ARRAY_START) {
+            throw new JsonException("Expected start-of-array bracket");
+        }
 
-            if (t.type == JsonTokenType.OBJECT_END) {
-                break;
-            }
+        return (JsonArray) parseValue(lexer, isLazy, maxDepth);
+    }
 
-            if (t.type != JsonTokenType.COMMA) {
-                throw new JsonException("Expected end-of-object bracket or comma, got: '%s'".formatted(t.value));
-            }
+    /**
+     * Parses the next object of {@code lexer} keeping only the values selected
+     * by {@code projection}, everything else is skipped.
+     */
+    static JsonObject parseObject(JsonLexer lexer, JsonProjection projection, int maxDepth) {
+        if (!lexer.hasToken()) {
+            return new JsonObject();
         }
 
-        if (Objects.requireNonNull(t).type != JsonTokenType.OBJECT_END) {
-            throw new JsonException("Expected end-of-object bracket");
+        if (lexer.peek() != JsonTokenType.OBJECT_START) {
+            throw new JsonException("Expected start-of-object bracket");
         }
 
-        return jsonObject;
+        JsonElement object = parseProjected(lexer, projection.root(), 0, maxDepth);
+        return (object == null) ? new JsonObject() : (JsonObject) object;
     }
 
-    static JsonArray parseArray(JsonLexer lexer) {
-        JsonToken t = null;
-        JsonArray jsonArray = new JsonArray();
-
+    /**
+     * Parses the next array of {@code lexer} keeping only the values selected by
+     * {@code projection}, everything else is skipped.
+     */
+    static JsonArray parseArray(JsonLexer lexer, JsonProjection projection, int maxDepth) {
         if (!lexer.hasToken()) {
-            return jsonArray;
+            return new JsonArray();
         }
 
-        if (lexer.nextToken().type != JsonTokenType.ARRAY_START) {
+        if (lexer.peek() != JsonTokenType.ARRAY_START) {
             throw new JsonException("Expected start-of-array bracket");
         }
 
-        while (lexer.hasToken() && ((t = lexer.nextToken()).type != JsonTokenType.ARRAY_END)) {
-            if (t.type == JsonTokenType.OBJECT_START) {
-                lexer.ungetToken();
-                JsonObject j = parseObject(lexer);
-                jsonArray.add(j);
-            } else if (t.type == JsonTokenType.ARRAY_START) {
-                lexer.ungetToken();
-                JsonArray j = parseArray(lexer);
-                jsonArray.add(j);
+        JsonElement array = parseProjected(lexer, projection.root(), 0, maxDepth);
+        return (array == null) ? new JsonArray() : (JsonArray) array;
+    }
+
+    /**
+     * Parses the next value of {@code lexer} along the projection {@code node}.
+     * Projections are only as deep as their longest path, so they are followed
+     * recursively while selected values are parsed without recursion.
+     *
+     * @param depth number of open containers
+     * @return parsed value, or {@code null} if the value does not match the
+     *         projection and was skipped
+     */
+    private static JsonElement parseProjected(JsonLexer lexer, JsonProjection.Node node, int depth, int maxDepth) {
+        JsonTokenType t = peekValue(lexer);
+
+        if (node.isSelected()) {
+            return parseValue(lexer, false, maxDepth - depth);
+        }
+
+        boolean isObject = (t == JsonTokenType.OBJECT_START);
+        boolean isMatch = isObject ? node.hasMembers() : (t == JsonTokenType.ARRAY_START && node.elements() != null);
+
+        if (!isMatch) {
+            lexer.skipValue();
+            return null;
+        }
+
+        if (depth == maxDepth) {
+            throw new JsonException("Maximum depth of %d exceeded".formatted(maxDepth));
+        }
+
+        lexer.nextToken();
+        JsonTokenType end = isObject ? JsonTokenType.OBJECT_END : JsonTokenType.ARRAY_END;
+        JsonElement container = isObject ? new JsonObject() : new JsonArray();
+
+        if (lexer.hasToken() && lexer.peek() == end) {
+            lexer.nextToken();
+            return container;
+        }
+
+        while (true) {
+            if (isObject) {
+                String key = parseKey(lexer);
+                JsonProjection.Node member = node.member(key);
+                JsonElement value = null;
+
+                if (member != null) {
+                    value = parseProjected(lexer, member, depth + 1, maxDepth);
+                } else {
+                    peekValue(lexer);
+                    lexer.skipValue();
+                }
+
+                if (value != null) {
+                    ((JsonObject) container).put(key, value);
+                }
             } else {
-                JsonElement e = parseElement(t);
-                jsonArray.add(e);
+                JsonElement value = parseProjected(lexer, node.elements(), depth + 1, maxDepth);
+
+                if (value != null) {
+                    ((JsonArray) container).add(value);
+                }
+            }
+
+            if (!lexer.hasToken()) {
+                throw new JsonException("Expected end-of-%s bracket".formatted(isObject ? "object" : "array"));
             }
 
             t = lexer.nextToken();
+            if (t == end) {
+                return container;
+            } else if (t != JsonTokenType.COMMA) {
+                throw new JsonException("Expected end-of-%s bracket or comma, got: '%s'"
+                        .formatted(isObject ? "object" : "array", lexer.tokenText()));
+            }
 
-            if (t.type == JsonTokenType.ARRAY_END) {
-                break;
+            // Trailing comma is tolerated before the end of an object or array
+            if (lexer.hasToken() && lexer.peek() == end) {
+                lexer.nextToken();
+                return container;
             }
+        }
+    }
 
-            if (t.type != JsonTokenType.COMMA) {
-                throw new JsonException("Expected end-of-array bracket or comma, got: '%s'".formatted(t.value));
+    /**
+     * Parses the next value of {@code lexer} without recursion. Each open
+     * container has an entry on the container kind, element and key stacks.
+     *
+     * @param isLazy   true if containers nested in the value are lazy
+     * @param maxDepth maximum number of open containers
+     */
+    private static JsonElement parseValue(JsonLexer lexer, boolean isLazy, int maxDepth) {
+        JsonTokenType first = peekValue(lexer);
+        if (first != JsonTokenType.OBJECT_START && first != JsonTokenType.ARRAY_START) {
+            return parseElement(lexer.nextToken(), lexer);
+        }
+
+        int[] kinds = new int[16];
+        JsonElement[] containers = new JsonElement[16];
+        String[] keys = new String[16];
+        int depth = 0;
+
+        while (true) {
+            JsonElement value;
+            JsonTokenType t = peekValue(lexer);
+
+            if (t == JsonTokenType.OBJECT_START || t == JsonTokenType.ARRAY_START) {
+                if (isLazy && depth > 0) {
+                    value = skipContainer(lexer);
+                } else {
+                    lexer.nextToken();
+
+                    if (depth == maxDepth) {
+                        throw new JsonException("Maximum depth of %d exceeded".formatted(maxDepth));
+                    }
+
+                    if (depth == kinds.length) {
+                        kinds = Arrays.copyOf(kinds, depth * 2);
+                        containers = Arrays.copyOf(containers, depth * 2);
+                        keys = Arrays.copyOf(keys, depth * 2);
+                    }
+
+                    boolean isObject = (t == JsonTokenType.OBJECT_START);
+                    JsonTokenType end = isObject ? JsonTokenType.OBJECT_END : JsonTokenType.ARRAY_END;
+
+                    if (!lexer.hasToken() || lexer.peek() != end) {
+                        kinds[depth] = isObject ? CONTAINER_OBJECT : CONTAINER_ARRAY;
+                        containers[depth] = isObject ? new JsonObject() : new JsonArray();
+                        if (isObject) {
+                            keys[depth] = parseKey(lexer);
+                        }
+
+                        depth++;
+                        continue;
+                    }
+
+                    lexer.nextToken();
+                    value = isObject ? new JsonObject() : new JsonArray();
+                }
+            } else {
+                value = parseElement(lexer.nextToken(), lexer);
+            }
+
+            // Add the value to its container, closing every container that ends
+            while (depth > 0) {
+                JsonElement container = containers[depth - 1];
+                boolean isObject = (kinds[depth - 1] == CONTAINER_OBJECT);
+
+                if (isObject) {
+                    ((JsonObject) container).put(keys[depth - 1], value);
+                } else {
+                    ((JsonArray) container).add(value);
+                }
+
+                if (!lexer.hasToken()) {
+                    throw new JsonException("Expected end-of-%s bracket".formatted(isObject ? "object" : "array"));
+                }
+
+                t = lexer.nextToken();
+                if (t == JsonTokenType.COMMA) {
+                    // Trailing comma is tolerated before the end of an object or array
+                    JsonTokenType end = isObject ? JsonTokenType.OBJECT_END : JsonTokenType.ARRAY_END;
+                    if (lexer.hasToken() && lexer.peek() == end) {
+                        lexer.nextToken();
+                    } else {
+                        if (isObject) {
+                            keys[depth - 1] = parseKey(lexer);
+                        }
+                        break;
+                    }
+                } else if (t != (isObject ? JsonTokenType.OBJECT_END : JsonTokenType.ARRAY_END)) {
+                    throw new JsonException("Expected end-of-%s bracket or comma, got: '%s'"
+                            .formatted(isObject ? "object" : "array", lexer.tokenText()));
+                }
+
+                value = container;
+                containers[--depth] = null;
+            }
+
+            if (depth == 0) {
+                return value;
             }
         }
+    }
 
-        if (Objects.requireNonNull(t).type != JsonTokenType.ARRAY_END) {
+    /**
+     * Consumes a member key and its colon.
+     */
+    private static String parseKey(JsonLexer lexer) {
+        if (!lexer.hasToken()) {
             throw new JsonException("Expected end-of-object bracket");
         }
 
-        return jsonArray;
-    }
+        if (lexer.nextToken() != JsonTokenType.STRING) {
+            throw new JsonException("Expected string, got: '%s'".formatted(lexer.tokenText()));
+        }
 
-    static JsonElement parseNumber(JsonToken token) {
-        boolean isDecimal = false;
+        String key = lexer.keyValue();
 
-        for (int i = 0; i < token.value.length(); ++i) {
-            if (token.value.charAt(i) == '.' || token.value.charAt(i) == 'e') {
-                isDecimal = true;
-                break;
-            }
+        if (!lexer.hasToken() || lexer.nextToken() != JsonTokenType.COLON) {
+            throw new JsonException("Expected colon, got: '%s'".formatted(lexer.tokenText()));
         }
 
-        if (isDecimal) {
-            return new JsonPrimitive(Double.parseDouble(token.value));
+        return key;
+    }
+
+    private static JsonTokenType peekValue(JsonLexer lexer) {
+        if (!lexer.hasToken()) {
+            throw new JsonException("Expected value, got end of input");
         }
 
-        long number = Long.parseLong(token.value);
+        return lexer.peek();
+    }
+
+    /**
+     * Returns the current number token of {@code lexer} as the narrowest fitting
+     * primitive.
+     */
+    static JsonElement parseNumber(JsonLexer lexer) {
+        return new JsonPrimitive(numberValue(lexer));
+    }
+
+    /**
+     * Returns the current number token of {@code lexer} boxed as the narrowest of
+     * {@code Short}, {@code Integer}, {@code Long} or {@code Double}.
+     */
+    static Number numberValue(JsonLexer lexer) {
+        if (lexer.isDecimal()) {
+            return lexer.doubleValue();
+        }
+
+        long number = lexer.longValue();
         if ((number <= Short.MAX_VALUE) && (number >= Short.MIN_VALUE)) {
-            return new JsonPrimitive((short) (number));
+            return (short) (number);
         } else if ((number <= Integer.MAX_VALUE) && (number >= Integer.MIN_VALUE)) {
-            return new JsonPrimitive((int) (number));
+            return (int) (number);
+        } else {
+            return number;
+        }
+    }
+
+    /**
+     * Skips the next object or array of {@code lexer} and returns a lazy
+     * container over its source span. The span is shared with the lexer buffer
+     * when the buffer holds the whole source.
+     */
+    private static JsonElement skipContainer(JsonLexer lexer) {
+        JsonTokenType type = lexer.skipValue();
+        byte[] source = lexer.buffer();
+        int offset = lexer.tokenStart();
+        int length = lexer.tokenLength();
+
+        if (!lexer.isBuffered()) {
+            source = Arrays.copyOfRange(source, offset, offset + length);
+            offset = 0;
+        }
+
+        if (type == JsonTokenType.OBJECT_START) {
+            return new JsonObject(source, offset, length);
         } else {
-            return new JsonPrimitive(number);
+            return new JsonArray(source, offset, length);
         }
     }
 
-    private static JsonElement parseElement(JsonToken token) {
+    /**
+     * Materializes the current scalar token of {@code lexer}.
+     */
+    private static JsonElement parseElement(JsonTokenType type, JsonLexer lexer) {
         JsonElement e = null;
 
-        if (token.type == JsonTokenType.STRING) {
-            String s = token.value.substring(1, token.value.length() - 1);
+        if (type == JsonTokenType.STRING) {
+            String s = lexer.stringValue();
             e = ((s.length() == 1) ? new JsonPrimitive(s.charAt(0)) : new JsonPrimitive(s));
-        } else if (token.type == JsonTokenType.BOOLEAN) {
-            e = new JsonPrimitive(Boolean.parseBoolean(token.value));
-        } else if (token.type == JsonTokenType.NULL) {
-            e = new JsonNull();
-        } else if (token.type == JsonTokenType.NUMBER) {
-            e = parseNumber(token);
+        } else if (type == JsonTokenType.BOOLEAN) {
+            e = (lexer.booleanValue() ? JsonPrimitive.TRUE : JsonPrimitive.FALSE);
+        } else if (type == JsonTokenType.NULL) {
+            e = JsonNull.INSTANCE;
+        } else if (type == JsonTokenType.NUMBER) {
+            e = parseNumber(lexer);
         } else {
-            throw new JsonException("Expected value, got: '%s'".formatted(token.value));
+            throw new JsonException("Expected value, got: '%s'".formatted(lexer.tokenText()));
         }
 
         return e;
@@ -33,6 +33,10 @@ public class JsonPrimitive extends JsonElement {
      */
     public final Object value;
 
+    // Shared by parsers, primitives are immutable
+    static final JsonPrimitive TRUE = new JsonPrimitive(Boolean.TRUE);
+    static final JsonPrimitive FALSE = new JsonPrimitive(Boolean.FALSE);
+
     /**
      * Character JsonPrimitive constructor.
      *
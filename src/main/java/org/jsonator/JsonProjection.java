@@ -0,0 +1,149 @@
+/*
+ *
+ * Copyright (c) 2023 Tony Medhat
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jsonator;
+
+import java.util.HashMap;
+
+/**
+ * Set of paths to materialize when parsing JSON, every value outside of the
+ * paths is skipped by bracket matching without being tokenized or validated.
+ * <p>
+ * A path is a dot separated list of member names, {@code [*]} selects every
+ * element of an array. The value at the end of a path is parsed whole, the
+ * objects and arrays leading to it only hold the selected members and elements.
+ *
+ * <pre>
+ * JsonProjection projection = JsonProjection.of("user.id", "items[*].sku");
+ * JsonObject order = new JsonObject().fromJson(source, projection);
+ * </pre>
+ *
+ * @author Tony Medhat
+ */
+public final class JsonProjection {
+    private static final String ALL_ELEMENTS = "[*]";
+
+    private final Node root;
+
+    private JsonProjection() {
+        root = new Node();
+    }
+
+    /**
+     * Creates a projection selecting the given paths.
+     *
+     * @param paths paths of the values to parse, e.g. {@code user.id} or
+     *              {@code [*].sku} for a top-level array
+     * @return projection of the given paths
+     * @throws IllegalArgumentException if a path is empty or malformed
+     */
+    public static JsonProjection of(String... paths) {
+        JsonProjection projection = new JsonProjection();
+
+        for (String path : paths) {
+            projection.add(path);
+        }
+
+        return projection;
+    }
+
+    Node root() {
+        return root;
+    }
+
+    private void add(String path) {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("Projection path is empty");
+        }
+
+        Node node = root;
+        for (String segment : path.split("\\.", -1)) {
+            int bracket = segment.indexOf('[');
+            String name = (bracket < 0) ? segment : segment.substring(0, bracket);
+
+            if (name.isEmpty() && (bracket < 0 || node != root)) {
+                throw new IllegalArgumentException("'%s' has an empty member name".formatted(path));
+            }
+
+            if (!name.isEmpty()) {
+                node = node.addMember(name);
+            }
+
+            for (int i = bracket; i >= 0 && i < segment.length(); i += ALL_ELEMENTS.length()) {
+                if (!segment.startsWith(ALL_ELEMENTS, i)) {
+                    throw new IllegalArgumentException("'%s' expected '%s' after '%s'"
+                            .formatted(path, ALL_ELEMENTS, segment.substring(0, i)));
+                }
+                node = node.addElements();
+            }
+        }
+
+        node.isSelected = true;
+    }
+
+    /**
+     * Step of a projection, children of a selected node are ignored since its
+     * whole value is parsed.
+     */
+    static final class Node {
+        private HashMap<String, Node> members;
+        private Node elements;
+        private boolean isSelected;
+
+        boolean isSelected() {
+            return isSelected;
+        }
+
+        boolean hasMembers() {
+            return (members != null);
+        }
+
+        /**
+         * Returns the node of the member {@code key}, or {@code null} if the member
+         * is skipped.
+         */
+        Node member(String key) {
+            return (members == null) ? null : members.get(key);
+        }
+
+        /**
+         * Returns the node of every array element, or {@code null} if elements are
+         * skipped.
+         */
+        Node elements() {
+            return elements;
+        }
+
+        private Node addMember(String key) {
+            if (members == null) {
+                members = new HashMap<>();
+            }
+
+            return members.computeIfAbsent(key, k -> new Node());
+        }
+
+        private Node addElements() {
+            if (elements == null) {
+                elements = new Node();
+            }
+
+            return elements;
+        }
+    }
+}
@@ -0,0 +1,526 @@
+/*
+ *
+ * Copyright (c) 2023 Tony Medhat
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jsonator;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Incremental push parser, UTF-8 encoded JSON is fed in chunks of any size as
+ * it arrives and events are emitted to a {@link Handler} as soon as their
+ * tokens complete. Only the bytes of a token split across chunks are retained
+ * between feeds, never the whole message.
+ * <p>
+ * Without a handler the events build a {@code JsonElement} tree, which is
+ * returned by {@link #finish()}.
+ *
+ * <pre>
+ * JsonPushParser parser = new JsonPushParser();
+ * while (channel.read(buffer) != -1) {
+ *     buffer.flip();
+ *     parser.feed(buffer);
+ *     buffer.clear();
+ * }
+ * JsonElement element = parser.finish();
+ * </pre>
+ *
+ * @author Tony Medhat
+ */
+public class JsonPushParser {
+
+    /**
+     * Receives the events of a {@code JsonPushParser} in document order.
+     */
+    public interface Handler {
+
+        /** Called on the start of an object. */
+        void startObject();
+
+        /** Called on the end of an object. */
+        void endObject();
+
+        /** Called on the start of an array. */
+        void startArray();
+
+        /** Called on the end of an array. */
+        void endArray();
+
+        /**
+         * Called on a member key, the member value follows.
+         *
+         * @param key member key
+         */
+        void key(String key);
+
+        /**
+         * Called on a string, number, boolean or null value.
+         *
+         * @param value {@code JsonPrimitive} or {@code JsonNull} value
+         */
+        void value(JsonElement value);
+    }
+
+    // Grammar states, what may come next
+    private static final int STATE_VALUE = 0;
+    private static final int STATE_VALUE_OR_END = 1;
+    private static final int STATE_KEY = 2;
+    private static final int STATE_KEY_OR_END = 3;
+    private static final int STATE_COLON = 4;
+    private static final int STATE_COMMA_OR_END = 5;
+    private static final int STATE_DONE = 6;
+
+    // Scanner states, kind of the token in progress
+    private static final int SCAN_NONE = 0;
+    private static final int SCAN_STRING = 1;
+    private static final int SCAN_SCALAR = 2;
+
+    private final Handler handler;
+    private final TreeBuilder builder;
+    private final int maxDepth;
+
+    private int state;
+    private int scan;
+    private boolean isEscaped;
+    private int lineIndex;
+    // Bytes of a leading byte order mark matched so far, -1 past the start
+    private int byteOrderMarkLength;
+
+    // Open containers, true for objects
+    private boolean[] containers;
+    private int depth;
+
+    // Bytes of a token split across chunks
+    private byte[] partial;
+    private int partialLength;
+
+    private byte[] chunkBytes;
+    private final JsonLexer tokenLexer;
+
+    /**
+     * Creates a parser that builds a {@code JsonElement} tree.
+     */
+    public JsonPushParser() {
+        this(null);
+    }
+
+    /**
+     * Creates a parser that emits its events to {@code handler}.
+     *
+     * @param handler receiver of the parser events
+     */
+    public JsonPushParser(Handler handler) {
+        this(handler, JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Creates a parser that emits its events to {@code handler}, or builds a
+     * {@code JsonElement} tree if {@code handler} is null. Nesting is limited to
+     * {@link JsonSerializerOptions#MaxDepth}.
+     *
+     * @param handler receiver of the parser events, or null
+     * @param options parser options
+     */
+    public JsonPushParser(Handler handler, JsonSerializerOptions options) {
+        this.builder = (handler == null) ? new TreeBuilder() : null;
+        this.handler = (handler == null) ? builder : handler;
+        maxDepth = options.MaxDepth;
+        state = STATE_VALUE;
+        lineIndex = 1;
+        containers = new boolean[16];
+        partial = new byte[64];
+        chunkBytes = new byte[0];
+        tokenLexer = new JsonLexer(chunkBytes);
+    }
+
+    /**
+     * Parses all remaining bytes of {@code chunk}, the chunk position is advanced
+     * to its limit.
+     *
+     * @param chunk next chunk of the UTF-8 encoded JSON
+     * @throws JsonException if the JSON is invalid
+     */
+    public void feed(ByteBuffer chunk) {
+        int length = chunk.remaining();
+
+        if (chunk.hasArray()) {
+            int offset = chunk.arrayOffset() + chunk.position();
+            feed(chunk.array(), offset, length);
+        } else {
+            if (chunkBytes.length < length) {
+                chunkBytes = new byte[length];
+            }
+
+            chunk.duplicate().get(chunkBytes, 0, length);
+            feed(chunkBytes, 0, length);
+        }
+
+        chunk.position(chunk.limit());
+    }
+
+    /**
+     * Parses {@code length} bytes of {@code chunk} starting at {@code offset}.
+     *
+     * @param chunk  next chunk of the UTF-8 encoded JSON
+     * @param offset offset of the first byte
+     * @param length number of bytes
+     * @throws JsonException if the JSON is invalid
+     */
+    public void feed(byte[] chunk, int offset, int length) {
+        int end = offset + length;
+        int i = (byteOrderMarkLength >= 0) ? skipByteOrderMark(chunk, offset, end) : offset;
+        int tokenStart = i;
+
+        while (i < end) {
+            if (scan == SCAN_STRING) {
+                i = scanString(chunk, i, end);
+                if (i < 0) {
+                    // String continues in the next chunk
+                    appendPartial(chunk, tokenStart, end);
+                    return;
+                }
+                emitToken(chunk, tokenStart, i, JsonTokenType.STRING);
+                scan = SCAN_NONE;
+                continue;
+            }
+
+            if (scan == SCAN_SCALAR) {
+                i = scanScalar(chunk, i, end);
+                if (i < 0) {
+                    appendPartial(chunk, tokenStart, end);
+                    return;
+                }
+                emitToken(chunk, tokenStart, i, null);
+                scan = SCAN_NONE;
+                continue;
+            }
+
+            byte b = chunk[i];
+            switch (b) {
+                case '\n':
+                    lineIndex++;
+                    i++;
+                    break;
+                case ' ':
+                case '\t':
+                case '\r':
+                    i++;
+                    break;
+                case '{':
+                case '[':
+                    startContainer(b == '{');
+                    i++;
+                    break;
+                case '}':
+                case ']':
+                    endContainer(b == '}');
+                    i++;
+                    break;
+                case ',':
+                    if (state != STATE_COMMA_OR_END) {
+                        throw unexpected(",");
+                    }
+                    state = containers[depth - 1] ? STATE_KEY : STATE_VALUE;
+                    i++;
+                    break;
+                case ':':
+                    if (state != STATE_COLON) {
+                        throw unexpected(":");
+                    }
+                    state = STATE_VALUE;
+                    i++;
+                    break;
+                case '"':
+                    scan = SCAN_STRING;
+                    tokenStart = i++;
+                    break;
+                default:
+                    scan = SCAN_SCALAR;
+                    tokenStart = i;
+                    break;
+            }
+        }
+
+        // Opening quote ends the chunk
+        if (scan == SCAN_STRING) {
+            appendPartial(chunk, tokenStart, end);
+        }
+    }
+
+    /**
+     * Completes parsing once the whole JSON is fed.
+     *
+     * @return the parsed {@code JsonElement} if the parser builds a tree, null
+     *         otherwise
+     * @throws JsonException if the JSON is incomplete or invalid
+     */
+    public JsonElement finish() {
+        if (byteOrderMarkLength > 0) {
+            retainByteOrderMark();
+        }
+
+        if (scan == SCAN_STRING) {
+            throw new JsonException("Expected end-of-string quote, got: '%s':line %d"
+                    .formatted(new String(partial, 0, partialLength), lineIndex));
+        }
+
+        if (scan == SCAN_SCALAR) {
+            emitToken(partial, 0, 0, null);
+            scan = SCAN_NONE;
+        }
+
+        if (depth > 0) {
+            throw new JsonException("Expected end-of-%s bracket:line %d"
+                    .formatted(containers[depth - 1] ? "object" : "array", lineIndex));
+        }
+
+        if (builder == null) {
+            return null;
+        }
+
+        // Empty JSON parses to an empty object, as in JsonParser.parse
+        return ((builder.root == null) ? new JsonObject() : builder.root);
+    }
+
+    /**
+     * Returns the index after the bytes of a byte order mark at the start of the
+     * JSON, the mark may be split across chunks.
+     */
+    private int skipByteOrderMark(byte[] chunk, int i, int end) {
+        while (i < end && byteOrderMarkLength < JsonLexer.BYTE_ORDER_MARK.length) {
+            if ((chunk[i] & 0xFF) != JsonLexer.BYTE_ORDER_MARK[byteOrderMarkLength]) {
+                retainByteOrderMark();
+                return i;
+            }
+
+            byteOrderMarkLength++;
+            i++;
+        }
+
+        if (byteOrderMarkLength == JsonLexer.BYTE_ORDER_MARK.length) {
+            byteOrderMarkLength = -1;
+        }
+
+        return i;
+    }
+
+    /**
+     * Keeps the bytes of a partial byte order mark as the start of a token, as
+     * the byte lexer does.
+     */
+    private void retainByteOrderMark() {
+        if (byteOrderMarkLength > 0) {
+            byte[] mark = new byte[byteOrderMarkLength];
+            for (int k = 0; k < mark.length; ++k) {
+                mark[k] = (byte) JsonLexer.BYTE_ORDER_MARK[k];
+            }
+
+            appendPartial(mark, 0, mark.length);
+            scan = SCAN_SCALAR;
+        }
+
+        byteOrderMarkLength = -1;
+    }
+
+    /**
+     * Returns the index after the closing quote of the string in progress, or -1
+     * if the string does not end in this chunk.
+     */
+    private int scanString(byte[] chunk, int i, int end) {
+        for (; i < end; ++i) {
+            byte b = chunk[i];
+
+            if (isEscaped) {
+                isEscaped = false;
+            } else if (b == '\\') {
+                isEscaped = true;
+            } else if (b == '"') {
+                return i + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the index after the number or literal in progress, or -1 if it may
+     * continue in the next chunk.
+     */
+    private int scanScalar(byte[] chunk, int i, int end) {
+        for (; i < end; ++i) {
+            byte b = chunk[i];
+
+            if (b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == ',' || b == ':' || b == ']' || b == '}'
+                    || b == '[' || b == '{' || b == '"') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Emits the token ending at {@code end}, joined with the bytes retained from
+     * previous chunks.
+     */
+    private void emitToken(byte[] chunk, int start, int end, JsonTokenType type) {
+        if (partialLength != 0) {
+            appendPartial(chunk, start, end);
+            chunk = partial;
+            start = 0;
+            end = partialLength;
+            partialLength = 0;
+        }
+
+        tokenLexer.reset(chunk, start, end - start);
+
+        if (state == STATE_KEY || state == STATE_KEY_OR_END) {
+            if (type != JsonTokenType.STRING) {
+                throw unexpected(tokenLexer.tokenText());
+            }
+
+            tokenLexer.nextToken();
+            handler.key(tokenLexer.keyValue());
+            state = STATE_COLON;
+            return;
+        }
+
+        if (state != STATE_VALUE && state != STATE_VALUE_OR_END) {
+            throw unexpected(new String(chunk, start, end - start));
+        }
+
+        JsonElement value = JsonParser.parseValue(tokenLexer);
+        if (tokenLexer.hasToken()) {
+            throw unexpected(new String(chunk, start, end - start));
+        }
+
+        handler.value(value);
+        endValue();
+    }
+
+    private void startContainer(boolean isObject) {
+        if (state != STATE_VALUE && state != STATE_VALUE_OR_END) {
+            throw unexpected(isObject ? "{" : "[");
+        }
+
+        if (depth == maxDepth) {
+            throw new JsonException("Maximum depth of %d exceeded".formatted(maxDepth));
+        }
+
+        if (depth == containers.length) {
+            containers = Arrays.copyOf(containers, depth * 2);
+        }
+
+        containers[depth++] = isObject;
+        if (isObject) {
+            handler.startObject();
+            state = STATE_KEY_OR_END;
+        } else {
+            handler.startArray();
+            state = STATE_VALUE_OR_END;
+        }
+    }
+
+    private void endContainer(boolean isObject) {
+        boolean isOpen = (depth > 0) && (containers[depth - 1] == isObject);
+        boolean isEmpty = (state == (isObject ? STATE_KEY_OR_END : STATE_VALUE_OR_END));
+        // Trailing comma is tolerated before the end of an object or array, as in JsonParser
+        boolean isTrailingComma = (state == (isObject ? STATE_KEY : STATE_VALUE));
+
+        if (!isOpen || !(isEmpty || isTrailingComma || state == STATE_COMMA_OR_END)) {
+            throw unexpected(isObject ? "}" : "]");
+        }
+
+        depth--;
+        if (isObject) {
+            handler.endObject();
+        } else {
+            handler.endArray();
+        }
+
+        endValue();
+    }
+
+    private void endValue() {
+        state = (depth == 0) ? STATE_DONE : STATE_COMMA_OR_END;
+    }
+
+    private void appendPartial(byte[] chunk, int start, int end) {
+        int length = end - start;
+
+        if (partial.length - partialLength < length) {
+            partial = Arrays.copyOf(partial, Math.max(partial.length * 2, partialLength + length));
+        }
+
+        System.arraycopy(chunk, start, partial, partialLength, length);
+        partialLength += length;
+    }
+
+    private JsonException unexpected(String token) {
+        return new JsonException("Unexpected token '%s':line %d".formatted(token, lineIndex));
+    }
+
+    /**
+     * Builds a {@code JsonElement} tree out of the parser events.
+     */
+    private static class TreeBuilder implements Handler {
+        private final ArrayDeque<JsonElement> containers = new ArrayDeque<>();
+        private final ArrayDeque<String> keys = new ArrayDeque<>();
+        private JsonElement root;
+
+        @Override
+        public void startObject() {
+            containers.push(new JsonObject());
+        }
+
+        @Override
+        public void endObject() {
+            value(containers.pop());
+        }
+
+        @Override
+        public void startArray() {
+            containers.push(new JsonArray());
+        }
+
+        @Override
+        public void endArray() {
+            value(containers.pop());
+        }
+
+        @Override
+        public void key(String key) {
+            keys.push(key);
+        }
+
+        @Override
+        public void value(JsonElement value) {
+            JsonElement container = containers.peek();
+
+            if (container == null) {
+                root = value;
+            } else if (container.isJsonObject()) {
+                container.getAsJsonObject().put(keys.pop(), value);
+            } else {
+                container.getAsJsonArray().add(value);
+            }
+        }
+    }
+}
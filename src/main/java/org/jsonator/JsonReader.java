@@ -0,0 +1,471 @@
+/*
+ *
+ * Copyright (c) 2023 Tony Medhat
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jsonator;
+
+import java.io.Closeable;
+import java.util.Arrays;
+
+/**
+ * Forward only cursor over the values of a JSON document, converters read
+ * values straight from the token stream without building a
+ * {@code JsonElement} tree.
+ * <p>
+ * Objects are read between {@link #beginObject()} and {@link #endObject()},
+ * each member as {@link #nextName()} followed by its value. Arrays are read
+ * between {@link #beginArray()} and {@link #endArray()}, {@link #hasNext()}
+ * tells whether the current object or array holds more values. Separators are
+ * consumed by the reader.
+ *
+ * <pre>
+ * reader.beginObject();
+ * while (reader.hasNext()) {
+ *     String name = reader.nextName();
+ *     ...
+ * }
+ * reader.endObject();
+ * </pre>
+ * <p>
+ * Readers taken from a {@link JsonReaderPool} are returned to it on
+ * {@link #close()}, along with their buffers.
+ *
+ * @author Tony Medhat
+ */
+public class JsonReader implements Closeable {
+
+    // Container states, the next token expected within each open container
+    private static final byte ARRAY_FIRST = 0;
+    private static final byte ARRAY_NEXT = 1;
+    private static final byte ARRAY_VALUE = 2;
+    private static final byte OBJECT_FIRST = 3;
+    private static final byte OBJECT_NEXT = 4;
+    private static final byte OBJECT_NAME = 5;
+    private static final byte OBJECT_VALUE = 6;
+
+    private static final byte[] EMPTY_SOURCE = new byte[0];
+
+    private final JsonLexer lexer;
+    private int maxDepth;
+    private byte[] states;
+    private int depth;
+
+    // Pool the reader is returned to on close, null if it is not pooled
+    private final JsonReaderPool pool;
+    private boolean isInUse;
+
+    JsonReader(JsonLexer lexer, int maxDepth) {
+        this.lexer = lexer;
+        this.maxDepth = maxDepth;
+        states = new byte[16];
+        pool = null;
+    }
+
+    /**
+     * Creates a reusable reader, it is pointed at a source by the reset methods.
+     */
+    JsonReader(JsonReaderPool pool) {
+        this.lexer = new JsonLexer(EMPTY_SOURCE);
+        this.pool = pool;
+        states = new byte[16];
+    }
+
+    void reset(byte[] source, JsonSerializerOptions options) {
+        reset(source, 0, source.length, options);
+    }
+
+    void reset(byte[] source, int offset, int length, JsonSerializerOptions options) {
+        lexer.reset(source, offset, length);
+        start(options);
+    }
+
+    void reset(CharSequence source, JsonSerializerOptions options) {
+        lexer.reset(source);
+        start(options);
+    }
+
+    void reset(JsonSource source, JsonSerializerOptions options) {
+        lexer.reset(source);
+        start(options);
+    }
+
+    boolean isInUse() {
+        return isInUse;
+    }
+
+    /**
+     * Returns true if the reader is at the end of its source.
+     */
+    boolean isEmpty() {
+        return (depth == 0 && !lexer.hasToken());
+    }
+
+    /**
+     * Releases the source of the reader and the strings shared while reading it,
+     * a pooled reader is returned to its pool.
+     */
+    @Override
+    public void close() {
+        if (!isInUse) {
+            return;
+        }
+
+        lexer.reset(EMPTY_SOURCE, 0, 0);
+        lexer.clearStrings();
+        isInUse = false;
+
+        if (pool != null) {
+            pool.release(this);
+        }
+    }
+
+    /**
+     * Returns the type of the next value, or of the bracket closing the current
+     * object or array.
+     *
+     * @return type of the next token
+     * @throws JsonException if the input ended or a separator stands in place of
+     *                       a value
+     */
+    public JsonTokenType peek() {
+        if (depth > 0) {
+            hasNext();
+        }
+
+        if (!lexer.hasToken()) {
+            throw new JsonException("Expected value, got end of input");
+        }
+
+        JsonTokenType t = lexer.peek();
+        if (t == JsonTokenType.COMMA || t == JsonTokenType.COLON) {
+            lexer.nextToken();
+            throw new JsonException("Expected value, got: '%s'".formatted(lexer.tokenText()));
+        }
+
+        return t;
+    }
+
+    /**
+     * Returns true if the current object or array holds more values.
+     *
+     * @return true if there is another member or element
+     */
+    public boolean hasNext() {
+        if (depth == 0) {
+            return lexer.hasToken();
+        }
+
+        byte state = states[depth - 1];
+        boolean isObject = (state >= OBJECT_FIRST);
+
+        if (state == ARRAY_VALUE || state == OBJECT_NAME || state == OBJECT_VALUE) {
+            return true;
+        }
+
+        JsonTokenType end = isObject ? JsonTokenType.OBJECT_END : JsonTokenType.ARRAY_END;
+        if (!lexer.hasToken()) {
+            throw new JsonException("Expected end-of-%s bracket".formatted(isObject ? "object" : "array"));
+        }
+
+        JsonTokenType t = lexer.peek();
+        if (t == end) {
+            return false;
+        }
+
+        if (state == ARRAY_FIRST || state == OBJECT_FIRST) {
+            return true;
+        }
+
+        if (t != JsonTokenType.COMMA) {
+            lexer.nextToken();
+            throw new JsonException("Expected end-of-%s bracket or comma, got: '%s'"
+                    .formatted(isObject ? "object" : "array", lexer.tokenText()));
+        }
+
+        lexer.nextToken();
+
+        // Trailing comma is tolerated before the end of an object or array
+        if (lexer.hasToken() && lexer.peek() == end) {
+            return false;
+        }
+
+        states[depth - 1] = isObject ? OBJECT_NAME : ARRAY_VALUE;
+        return true;
+    }
+
+    /**
+     * Consumes the start of an object.
+     *
+     * @throws JsonException if the next value is not an object
+     */
+    public void beginObject() {
+        begin(JsonTokenType.OBJECT_START, OBJECT_FIRST);
+    }
+
+    /**
+     * Consumes the end of the current object, all of its members must be read.
+     *
+     * @throws JsonException if the object has more members
+     */
+    public void endObject() {
+        end(JsonTokenType.OBJECT_END, "object");
+    }
+
+    /**
+     * Consumes the start of an array.
+     *
+     * @throws JsonException if the next value is not an array
+     */
+    public void beginArray() {
+        begin(JsonTokenType.ARRAY_START, ARRAY_FIRST);
+    }
+
+    /**
+     * Consumes the end of the current array, all of its elements must be read.
+     *
+     * @throws JsonException if the array has more elements
+     */
+    public void endArray() {
+        end(JsonTokenType.ARRAY_END, "array");
+    }
+
+    /**
+     * Consumes the name of the next member of the current object and its colon.
+     *
+     * @return member name
+     * @throws JsonException if the object has no more members
+     */
+    public String nextName() {
+        if (depth == 0 || states[depth - 1] < OBJECT_FIRST || !hasNext() || states[depth - 1] == OBJECT_VALUE) {
+            throw new JsonException("Expected member name");
+        }
+
+        if (lexer.nextToken() != JsonTokenType.STRING) {
+            throw new JsonException("Expected string, got: '%s'".formatted(lexer.tokenText()));
+        }
+
+        String name = lexer.keyValue();
+
+        if (!lexer.hasToken() || lexer.nextToken() != JsonTokenType.COLON) {
+            throw new JsonException("Expected colon, got: '%s'".formatted(lexer.tokenText()));
+        }
+
+        states[depth - 1] = OBJECT_VALUE;
+        return name;
+    }
+
+    /**
+     * Consumes the next string value.
+     *
+     * @return decoded string
+     * @throws JsonException if the next value is not a string
+     */
+    public String nextString() {
+        expect(JsonTokenType.STRING);
+        return lexer.stringValue();
+    }
+
+    /**
+     * Consumes the next boolean value.
+     *
+     * @return boolean value
+     * @throws JsonException if the next value is not a boolean
+     */
+    public boolean nextBoolean() {
+        expect(JsonTokenType.BOOLEAN);
+        return lexer.booleanValue();
+    }
+
+    /**
+     * Consumes the next null value.
+     *
+     * @throws JsonException if the next value is not null
+     */
+    public void nextNull() {
+        expect(JsonTokenType.NULL);
+    }
+
+    /**
+     * Consumes the next number value as the narrowest of {@code Short},
+     * {@code Integer}, {@code Long} or {@code Double}, the same as a parsed
+     * {@code JsonPrimitive}.
+     *
+     * @return number value
+     * @throws JsonException if the next value is not a number
+     */
+    public Number nextNumber() {
+        expect(JsonTokenType.NUMBER);
+        return JsonParser.numberValue(lexer);
+    }
+
+    /**
+     * Consumes the next number value, a decimal number is truncated.
+     *
+     * @return number value
+     * @throws JsonException if the next value is not a number
+     */
+    public long nextLong() {
+        expect(JsonTokenType.NUMBER);
+        return (lexer.isDecimal() ? (long) lexer.doubleValue() : lexer.longValue());
+    }
+
+    /**
+     * Consumes the next number value, a decimal number is truncated.
+     *
+     * @return number value
+     * @throws JsonException if the next value is not a number
+     */
+    public int nextInt() {
+        expect(JsonTokenType.NUMBER);
+        return (lexer.isDecimal() ? (int) lexer.doubleValue() : (int) lexer.longValue());
+    }
+
+    /**
+     * Consumes the next number value.
+     *
+     * @return number value
+     * @throws JsonException if the next value is not a number
+     */
+    public double nextDouble() {
+        expect(JsonTokenType.NUMBER);
+        return (lexer.isDecimal() ? lexer.doubleValue() : (double) lexer.longValue());
+    }
+
+    /**
+     * Consumes the next value as a {@code JsonElement} tree.
+     *
+     * @return parsed value
+     */
+    public JsonElement nextElement() {
+        beforeValue();
+        return JsonParser.parseValue(lexer, maxDepth - depth);
+    }
+
+    /**
+     * Consumes the next value without materializing it, nested objects and arrays
+     * are skipped by bracket matching and are not validated.
+     */
+    public void skipValue() {
+        beforeValue();
+        if (!lexer.hasToken()) {
+            throw new JsonException("Expected value, got end of input");
+        }
+
+        lexer.skipValue();
+    }
+
+    /**
+     * Lowers the maximum nesting depth for a source nested in another value.
+     */
+    void limitDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    private void start(JsonSerializerOptions options) {
+        lexer.setCanonicalValues(options.CanonicalStrings);
+        maxDepth = options.MaxDepth;
+        depth = 0;
+        isInUse = true;
+    }
+
+    private void begin(JsonTokenType type, byte state) {
+        expect(type);
+
+        if (depth == maxDepth) {
+            throw new JsonException("Maximum depth of %d exceeded".formatted(maxDepth));
+        }
+
+        if (depth == states.length) {
+            states = Arrays.copyOf(states, depth * 2);
+        }
+
+        states[depth++] = state;
+    }
+
+    private void end(JsonTokenType type, String name) {
+        if (depth == 0 || (states[depth - 1] >= OBJECT_FIRST) != (type == JsonTokenType.OBJECT_END)) {
+            throw new JsonException("Expected end-of-%s bracket".formatted(name));
+        }
+
+        if (hasNext()) {
+            lexer.nextToken();
+            throw new JsonException("Expected end-of-%s bracket, got: '%s'".formatted(name, lexer.tokenText()));
+        }
+
+        lexer.nextToken();
+        depth--;
+    }
+
+    /**
+     * Consumes the next token, which must be a value of {@code type}.
+     */
+    private void expect(JsonTokenType type) {
+        beforeValue();
+
+        if (!lexer.hasToken()) {
+            throw new JsonException("Expected value, got end of input");
+        }
+
+        if (lexer.peek() != type) {
+            lexer.nextToken();
+            throw new JsonException("Expected %s, got: '%s'".formatted(describe(type), lexer.tokenText()));
+        }
+
+        lexer.nextToken();
+    }
+
+    private static String describe(JsonTokenType type) {
+        String description = null;
+
+        switch (type) {
+            case OBJECT_START:
+                description = "start-of-object bracket";
+                break;
+            case ARRAY_START:
+                description = "start-of-array bracket";
+                break;
+            default:
+                description = type.name().toLowerCase();
+                break;
+        }
+
+        return description;
+    }
+
+    /**
+     * Moves the current container past the separator of the next value.
+     */
+    private void beforeValue() {
+        if (depth == 0) {
+            return;
+        }
+
+        byte state = states[depth - 1];
+
+        if (state == OBJECT_VALUE) {
+            states[depth - 1] = OBJECT_NEXT;
+        } else if (state < OBJECT_FIRST) {
+            if (!hasNext()) {
+                throw new JsonException("Expected value, got end of array");
+            }
+            states[depth - 1] = ARRAY_NEXT;
+        } else {
+            throw new JsonException("Expected member name");
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ *
+ * Copyright (c) 2023 Tony Medhat
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jsonator;
+
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Bounded pool of reusable {@link JsonReader}s. A pooled reader keeps its
+ * lexer, scratch buffers, string table and container stack between documents,
+ * so steady state parsing allocates little besides the deserialized values.
+ * <p>
+ * {@code JsonSerializer} caches one reader per thread, which is a poor fit for
+ * virtual threads that are many and short lived. A pool shared by those
+ * threads bounds the number of readers instead. Readers are taken with the
+ * acquire methods and returned on {@link JsonReader#close()}, when the pool is
+ * full a returned reader is dropped. Pools are safe for concurrent use, a
+ * reader is used by one thread at a time.
+ *
+ * <pre>
+ * JsonReaderPool pool = new JsonReaderPool(64);
+ * Order order = pool.deserialize(body, TypeToken.get(Order.class), options);
+ * </pre>
+ *
+ * @author Tony Medhat
+ */
+public final class JsonReaderPool {
+
+    private static final ThreadLocal<JsonReader> localReaders = new ThreadLocal<>();
+
+    private final ArrayBlockingQueue<JsonReader> idleReaders;
+
+    /**
+     * Creates a pool holding up to {@code capacity} idle readers.
+     *
+     * @param capacity maximum number of idle readers
+     * @throws IllegalArgumentException if {@code capacity} is less than 1
+     */
+    public JsonReaderPool(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Pool capacity must be positive, got: %d".formatted(capacity));
+        }
+
+        idleReaders = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Returns a reader over the given UTF-8 encoded JSON.
+     *
+     * @param source  valid UTF-8 encoded JSON
+     * @param options serializer options
+     * @return reader to close once done
+     */
+    public JsonReader acquire(byte[] source, JsonSerializerOptions options) {
+        JsonReader reader = take();
+        reader.reset(source, options);
+        return reader;
+    }
+
+    /**
+     * Returns a reader over the given JSON string.
+     *
+     * @param source  valid JSON string
+     * @param options serializer options
+     * @return reader to close once done
+     */
+    public JsonReader acquire(String source, JsonSerializerOptions options) {
+        JsonReader reader = take();
+        reader.reset(source, options);
+        return reader;
+    }
+
+    /**
+     * Returns a reader over the UTF-8 encoded JSON read from {@code source}, the
+     * stream is not closed.
+     *
+     * @param source  stream of valid UTF-8 encoded JSON
+     * @param options serializer options
+     * @return reader to close once done
+     */
+    public JsonReader acquire(InputStream source, JsonSerializerOptions options) {
+        JsonReader reader = take();
+        reader.reset(JsonSource.of(source), options);
+        return reader;
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the given UTF-8 encoded
+     * JSON, read with a pooled reader.
+     *
+     * @param <T>     type to deserialize
+     * @param source  valid UTF-8 encoded JSON
+     * @param type    type to deserialize class
+     * @param options serializer options
+     * @return instance of {@code T}
+     * @throws JsonException if no converter is found
+     */
+    public <T> T deserialize(byte[] source, TypeToken<T> type, JsonSerializerOptions options) {
+        try (JsonReader reader = acquire(source, options)) {
+            return JsonSerializer.deserialize(reader, type, options);
+        }
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the given JSON string, read
+     * with a pooled reader.
+     *
+     * @param <T>     type to deserialize
+     * @param source  valid JSON string
+     * @param type    type to deserialize class
+     * @param options serializer options
+     * @return instance of {@code T}
+     * @throws JsonException if no converter is found
+     */
+    public <T> T deserialize(String source, TypeToken<T> type, JsonSerializerOptions options) {
+        try (JsonReader reader = acquire(source, options)) {
+            return JsonSerializer.deserialize(reader, type, options);
+        }
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the UTF-8 encoded JSON read
+     * from {@code source} with a pooled reader, the stream is not closed.
+     *
+     * @param <T>     type to deserialize
+     * @param source  stream of valid UTF-8 encoded JSON
+     * @param type    type to deserialize class
+     * @param options serializer options
+     * @return instance of {@code T}
+     * @throws JsonException if no converter is found or reading from
+     *                       {@code source} fails
+     */
+    public <T> T deserialize(InputStream source, TypeToken<T> type, JsonSerializerOptions options) {
+        try (JsonReader reader = acquire(source, options)) {
+            return JsonSerializer.deserialize(reader, type, options);
+        }
+    }
+
+    /**
+     * Returns the reader cached for the current thread, or a new reader if the
+     * cached one is in use further up the call stack.
+     */
+    static JsonReader local() {
+        JsonReader reader = localReaders.get();
+
+        if (reader == null) {
+            reader = new JsonReader((JsonReaderPool) null);
+            localReaders.set(reader);
+        } else if (reader.isInUse()) {
+            reader = new JsonReader((JsonReaderPool) null);
+        }
+
+        return reader;
+    }
+
+    void release(JsonReader reader) {
+        idleReaders.offer(reader);
+    }
+
+    private JsonReader take() {
+        JsonReader reader = idleReaders.poll();
+        return (reader != null) ? reader : new JsonReader(this);
+    }
+}
@@ -19,9 +19,17 @@
 
 package org.jsonator;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.lang.reflect.Type;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
 
 /*
  * Supported Types:
@@ -157,20 +165,346 @@ public class JsonSerializer {
      * @throws UnsupportedOperationException if {@code T} deserialization is
      *                                       supported
      */
-    @SuppressWarnings("unchecked")
     public static <T> T deserialize(String source, TypeToken<T> type, JsonSerializerOptions options) {
-        JsonLexer lexer = new JsonLexer(source);
-        JsonElement jsonElement = JsonParser.parse(lexer);
+        if (options.ParallelParsing) {
+            return deserialize(source.getBytes(StandardCharsets.UTF_8), type, options);
+        }
+
+        try (JsonReader reader = JsonReaderPool.local()) {
+            reader.reset(source, options);
+            return deserialize(reader, type, options);
+        }
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the JSON read from
+     * {@code source}. The source is consumed incrementally, it is never read
+     * into memory as a whole.
+     * <p>
+     * {@link JsonSerializer#deserialize(Reader, TypeToken, JsonSerializerOptions)}
+     */
+    public static <T> T deserialize(Reader source, Class<T> type) {
+        return deserialize(source, TypeToken.get(type), JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the JSON read from
+     * {@code source}. The source is consumed incrementally, it is never read
+     * into memory as a whole.
+     * <p>
+     * {@link JsonSerializer#deserialize(Reader, TypeToken, JsonSerializerOptions)}
+     */
+    public static <T> T deserialize(Reader source, TypeToken<T> type) {
+        return deserialize(source, type, JsonSerializerOptions.DefaultOptions);
+    }
 
+    /**
+     * Returns an instance of {@code T} populated from the JSON read from
+     * {@code source}. The source is consumed incrementally, it is never read
+     * into memory as a whole.
+     *
+     * @param <T>     type to deserialize
+     * @param source  reader of a valid JSON document
+     * @param type    type to deserialize class
+     * @param options serializer options
+     * @return instance of {@code T}
+     * @throws JsonException                 if no converter is found or reading
+     *                                       from {@code source} fails
+     * @throws UnsupportedOperationException if {@code T} deserialization is
+     *                                       supported
+     */
+    public static <T> T deserialize(Reader source, TypeToken<T> type, JsonSerializerOptions options) {
+        try (JsonReader reader = JsonReaderPool.local()) {
+            reader.reset(JsonSource.of(source), options);
+            return deserialize(reader, type, options);
+        }
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the given UTF-8 encoded
+     * JSON.
+     * <p>
+     * {@link JsonSerializer#deserialize(byte[], TypeToken, JsonSerializerOptions)}
+     */
+    public static <T> T deserialize(byte[] source, Class<T> type) {
+        return deserialize(source, TypeToken.get(type), JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the given UTF-8 encoded
+     * JSON.
+     * <p>
+     * {@link JsonSerializer#deserialize(byte[], TypeToken, JsonSerializerOptions)}
+     */
+    public static <T> T deserialize(byte[] source, TypeToken<T> type) {
+        return deserialize(source, type, JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the given UTF-8 encoded
+     * JSON. The bytes are lexed in place, string contents are only decoded when
+     * their values are created.
+     *
+     * @param <T>     type to deserialize
+     * @param source  valid UTF-8 encoded JSON
+     * @param type    type to deserialize class
+     * @param options serializer options
+     * @return instance of {@code T}
+     * @throws JsonException                 if no converter is found
+     * @throws UnsupportedOperationException if {@code T} deserialization is
+     *                                       supported
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T deserialize(byte[] source, TypeToken<T> type, JsonSerializerOptions options) {
+        if (options.ParallelParsing && JsonParallelParser.isParallel(source, 0, source.length)) {
+            return (T) JsonParallelParser.deserialize(source, 0, source.length, type, options);
+        }
+
+        try (JsonReader reader = JsonReaderPool.local()) {
+            reader.reset(source, options);
+            return deserialize(reader, type, options);
+        }
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the UTF-8 encoded JSON
+     * remaining in {@code source}.
+     * <p>
+     * {@link JsonSerializer#deserialize(ByteBuffer, TypeToken, JsonSerializerOptions)}
+     */
+    public static <T> T deserialize(ByteBuffer source, Class<T> type) {
+        return deserialize(source, TypeToken.get(type), JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the UTF-8 encoded JSON
+     * remaining in {@code source}.
+     * <p>
+     * {@link JsonSerializer#deserialize(ByteBuffer, TypeToken, JsonSerializerOptions)}
+     */
+    public static <T> T deserialize(ByteBuffer source, TypeToken<T> type) {
+        return deserialize(source, type, JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the UTF-8 encoded JSON
+     * remaining in {@code source}. The position of {@code source} is not
+     * modified.
+     *
+     * @param <T>     type to deserialize
+     * @param source  buffer holding valid UTF-8 encoded JSON
+     * @param type    type to deserialize class
+     * @param options serializer options
+     * @return instance of {@code T}
+     * @throws JsonException                 if no converter is found
+     * @throws UnsupportedOperationException if {@code T} deserialization is
+     *                                       supported
+     */
+    public static <T> T deserialize(ByteBuffer source, TypeToken<T> type, JsonSerializerOptions options) {
+        if (!source.hasArray()) {
+            return deserialize(new JsonLexer(source), type, options);
+        }
+
+        try (JsonReader reader = JsonReaderPool.local()) {
+            reader.reset(source.array(), source.arrayOffset() + source.position(), source.remaining(), options);
+            return deserialize(reader, type, options);
+        }
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the UTF-8 encoded JSON
+     * read from {@code source}.
+     * <p>
+     * {@link JsonSerializer#deserialize(InputStream, TypeToken, JsonSerializerOptions)}
+     */
+    public static <T> T deserialize(InputStream source, Class<T> type) {
+        return deserialize(source, TypeToken.get(type), JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the UTF-8 encoded JSON
+     * read from {@code source}.
+     * <p>
+     * {@link JsonSerializer#deserialize(InputStream, TypeToken, JsonSerializerOptions)}
+     */
+    public static <T> T deserialize(InputStream source, TypeToken<T> type) {
+        return deserialize(source, type, JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the UTF-8 encoded JSON
+     * read from {@code source}. The stream is consumed incrementally and is not
+     * closed.
+     *
+     * @param <T>     type to deserialize
+     * @param source  stream of valid UTF-8 encoded JSON
+     * @param type    type to deserialize class
+     * @param options serializer options
+     * @return instance of {@code T}
+     * @throws JsonException                 if no converter is found or reading
+     *                                       from {@code source} fails
+     * @throws UnsupportedOperationException if {@code T} deserialization is
+     *                                       supported
+     */
+    public static <T> T deserialize(InputStream source, TypeToken<T> type, JsonSerializerOptions options) {
+        try (JsonReader reader = JsonReaderPool.local()) {
+            reader.reset(JsonSource.of(source), options);
+            return deserialize(reader, type, options);
+        }
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the UTF-8 encoded JSON
+     * file.
+     * <p>
+     * {@link JsonSerializer#deserialize(Path, TypeToken, JsonSerializerOptions)}
+     */
+    public static <T> T deserialize(Path source, Class<T> type) {
+        return deserialize(source, TypeToken.get(type), JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the UTF-8 encoded JSON
+     * file.
+     * <p>
+     * {@link JsonSerializer#deserialize(Path, TypeToken, JsonSerializerOptions)}
+     */
+    public static <T> T deserialize(Path source, TypeToken<T> type) {
+        return deserialize(source, type, JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Returns an instance of {@code T} populated from the UTF-8 encoded JSON
+     * file. The file is memory mapped and lexed window by window, it is never
+     * read into the heap as a whole.
+     *
+     * @param <T>     type to deserialize
+     * @param source  path of a valid UTF-8 encoded JSON file
+     * @param type    type to deserialize class
+     * @param options serializer options
+     * @return instance of {@code T}
+     * @throws JsonException                 if no converter is found or the file
+     *                                       can not be read
+     * @throws UnsupportedOperationException if {@code T} deserialization is
+     *                                       supported
+     */
+    public static <T> T deserialize(Path source, TypeToken<T> type, JsonSerializerOptions options) {
+        try (JsonSource mappedSource = JsonSource.of(source); JsonReader reader = JsonReaderPool.local()) {
+            reader.reset(mappedSource, options);
+            return deserialize(reader, type, options);
+        } catch (IOException io) {
+            throw new JsonException("'%s' can not be read, %s".formatted(source, io.getMessage()), io);
+        }
+    }
+
+    /**
+     * Returns a lazy stream of the records of newline delimited JSON (NDJSON,
+     * JSON Lines).
+     * <p>
+     * {@link JsonSerializer#readLines(Reader, TypeToken, JsonSerializerOptions)}
+     */
+    public static <T> Stream<T> readLines(Reader source, TypeToken<T> type) {
+        return readLines(source, type, JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Returns a lazy stream of the records of newline delimited JSON (NDJSON,
+     * JSON Lines). Records are read and deserialized one at a time as the stream
+     * is consumed, through one lexer and converter, memory is bounded by the
+     * largest record. The reader is not closed by the stream.
+     *
+     * @param <T>     type to deserialize
+     * @param source  reader of JSON records separated by whitespace
+     * @param type    type to deserialize class
+     * @param options serializer options
+     * @return sequential stream of instances of {@code T}
+     * @throws JsonException if no converter is found, a record is invalid or can
+     *                       not be read
+     */
+    public static <T> Stream<T> readLines(Reader source, TypeToken<T> type, JsonSerializerOptions options) {
+        return JsonLines.stream(JsonSource.of(source), type, options);
+    }
+
+    /**
+     * Returns a lazy stream of the records of a UTF-8 encoded newline delimited
+     * JSON (NDJSON, JSON Lines) file.
+     * <p>
+     * {@link JsonSerializer#readLines(Path, TypeToken, JsonSerializerOptions)}
+     */
+    public static <T> Stream<T> readLines(Path source, TypeToken<T> type) {
+        return readLines(source, type, JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Returns a lazy stream of the records of a UTF-8 encoded newline delimited
+     * JSON (NDJSON, JSON Lines) file. The file is memory mapped and records are
+     * deserialized one at a time as the stream is consumed. A parallel stream
+     * splits the file on line boundaries, every record must then be on a single
+     * line. The stream must be closed to release the file.
+     *
+     * @param <T>     type to deserialize
+     * @param source  path of a UTF-8 encoded NDJSON file
+     * @param type    type to deserialize class
+     * @param options serializer options
+     * @return sequential stream of instances of {@code T}, see
+     *         {@link Stream#parallel()}
+     * @throws JsonException if no converter is found, a record is invalid or the
+     *                       file can not be read
+     */
+    public static <T> Stream<T> readLines(Path source, TypeToken<T> type, JsonSerializerOptions options) {
+        FileChannel channel = null;
+
+        try {
+            channel = FileChannel.open(source, StandardOpenOption.READ);
+            return JsonLines.stream(channel, type, options);
+        } catch (IOException io) {
+            closeQuietly(channel);
+            throw new JsonException("'%s' can not be read, %s".formatted(source, io.getMessage()), io);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    private static <T> T deserialize(JsonLexer lexer, TypeToken<T> type, JsonSerializerOptions options) {
+        lexer.setCanonicalValues(options.CanonicalStrings);
+        return deserialize(new JsonReader(lexer, options.MaxDepth), type, options);
+    }
+
+    /**
+     * Returns an instance of {@code T} read from {@code reader}, an empty source
+     * deserializes from an empty object.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T deserialize(JsonReader reader, TypeToken<T> type, JsonSerializerOptions options) {
         if (!options.hasConverter(type)) {
             throw new JsonException("'%s' can not deserialize".formatted(type.getType().getTypeName()));
         }
 
         JsonConverter<?> converter = options.getConverter(type);
-        Object value = converter.deserialize(jsonElement, type, options);
+        Object value = null;
+
+        if (reader.isEmpty()) {
+            value = converter.deserialize(new JsonObject(), type, options);
+        } else {
+            value = converter.deserialize(reader, type, options);
+        }
+
         return (T) value;
     }
 
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Already failing
+        }
+    }
+
     /**
      * Returns a JSON string from the given {@code object}.
      *
@@ -189,7 +523,114 @@ public class JsonSerializer {
      * @return JSON string
      */
     public static String serialize(Object object, JsonSerializerOptions options) {
-        Queue<JsonToken> tokens = new LinkedList<>();
+        StringBuilder sb = new StringBuilder();
+        serialize(object, sb, options);
+        return sb.toString();
+    }
+
+    /**
+     * Writes JSON from the given {@code object} to {@code out}, such as a
+     * {@code Writer} or a {@code StringBuilder}. Output is streamed, it is not
+     * held in memory as a whole. {@code out} is flushed if it is
+     * {@code Flushable}, it is not closed.
+     *
+     * @param object  object to serialize
+     * @param out     destination of the JSON text
+     * @param options serialization options
+     * @throws JsonException if no converter is found or writing to {@code out}
+     *                       fails
+     */
+    public static void serialize(Object object, Appendable out, JsonSerializerOptions options) {
+        JsonWriter writer = new JsonWriter(out, options);
+        serialize(object, writer, options);
+        writer.flush();
+    }
+
+    /**
+     * Returns UTF-8 encoded JSON from the given {@code object}.
+     * <p>
+     * {@link JsonSerializer#serializeToBytes(Object, JsonSerializerOptions)}
+     */
+    public static byte[] serializeToBytes(Object object) {
+        return serializeToBytes(object, JsonSerializerOptions.DefaultOptions);
+    }
+
+    /**
+     * Returns UTF-8 encoded JSON from the given {@code object}, encoded while
+     * writing without an intermediate string.
+     *
+     * @param object  object to serialize
+     * @param options serialization options
+     * @return UTF-8 encoded JSON
+     * @throws JsonException if no converter is found
+     */
+    public static byte[] serializeToBytes(Object object, JsonSerializerOptions options) {
+        JsonWriter writer = new JsonWriter(options);
+
+        try {
+            serialize(object, writer, options);
+            return writer.toByteArray();
+        } finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * Writes UTF-8 encoded JSON from the given {@code object} to {@code out}.
+     * Output is streamed, it is not held in memory as a whole. {@code out} is
+     * flushed, it is not closed.
+     *
+     * @param object  object to serialize
+     * @param out     destination of the UTF-8 encoded JSON
+     * @param options serialization options
+     * @throws JsonException if no converter is found or writing to {@code out}
+     *                       fails
+     */
+    public static void serialize(Object object, OutputStream out, JsonSerializerOptions options) {
+        JsonWriter writer = new JsonWriter(out, options);
+
+        try {
+            serialize(object, writer, options);
+            writer.flush();
+        } finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * Writes UTF-8 encoded JSON from the given {@code object} to {@code out},
+     * starting at its position. The position is advanced past the written
+     * bytes. If serialization fails the position is restored, the bytes after it
+     * may hold part of the JSON.
+     *
+     * @param object  object to serialize
+     * @param out     destination of the UTF-8 encoded JSON
+     * @param options serialization options
+     * @throws JsonException                  if no converter is found
+     * @throws java.nio.BufferOverflowException if {@code out} has no room for
+     *                                          the JSON
+     */
+    public static void serialize(Object object, ByteBuffer out, JsonSerializerOptions options) {
+        JsonWriter writer = new JsonWriter(out, options);
+        int start = out.position();
+
+        try {
+            serialize(object, writer, options);
+            writer.flush();
+        } catch (RuntimeException e) {
+            out.position(start);
+            throw e;
+        } finally {
+            writer.release();
+        }
+    }
+
+    private static void serialize(Object object, JsonWriter writer, JsonSerializerOptions options) {
+        if (object instanceof JsonElement) {
+            writer.value((JsonElement) object);
+            return;
+        }
+
         TypeToken<?> type = TypeToken.get(object.getClass());
 
         if (!options.hasConverter(type)) {
@@ -197,8 +638,6 @@ public class JsonSerializer {
         }
 
         JsonConverter<?> converter = options.getConverter(type);
-        converter.serialize(tokens, object, options);
-
-        return JsonFormatter.formatTokens(tokens, options);
+        converter.serialize(writer, object, options);
     }
 }
@@ -19,11 +19,14 @@
 
 package org.jsonator;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Hashtable;
 import java.util.LinkedList;
 import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jsonator.Converters.*;
 
@@ -53,13 +56,59 @@ public class JsonSerializerOptions {
      */
     public boolean WriteIndented;
 
+    /**
+     * Sets the maximum nesting depth of objects and arrays in parsed JSON, deeper
+     * JSON fails with a {@code JsonException}. (default: 1000)
+     */
+    public int MaxDepth;
+
+    /**
+     * Enables parsing the elements of a large top-level JSON array in parallel,
+     * applies to JSON given as a {@code String} or {@code byte[]}. (default:
+     * false)
+     */
+    public boolean ParallelParsing;
+
+    /**
+     * Enables writing the values of large arrays and collections in parallel,
+     * the output is the same as written sequentially. Converters of the values
+     * must be safe for concurrent use. (default: false)
+     */
+    public boolean ParallelSerialization;
+
+    /**
+     * Sets the minimum number of values of an array or a collection written in
+     * parallel with {@link #ParallelSerialization}. (default: 65536)
+     */
+    public int ParallelSerializationThreshold;
+
+    /**
+     * Shares repeated short string values of parsed JSON, such as enum-like
+     * fields, the way object keys are always shared. (default: false)
+     */
+    public boolean CanonicalStrings;
+
     private final Hashtable<TypeToken<?>, ArrayList<JsonConverter<?>>> customConverters;
+    // Converters removed from these options, the default converters are shared
+    private final Set<JsonConverter<?>> removedConverters;
+    // Converters resolved by type, cleared whenever the converters change
+    private final ConcurrentHashMap<Type, JsonConverter<?>> resolvedConverters;
+    // Line break followed by spaces, indented writers write a prefix of it
+    private volatile String indentation;
 
     /** Default constructor. */
     public JsonSerializerOptions() {
         TabWidth = 2;
         WriteIndented = false;
+        MaxDepth = 1000;
+        ParallelParsing = false;
+        ParallelSerialization = false;
+        ParallelSerializationThreshold = 1 << 16;
+        CanonicalStrings = false;
         customConverters = new Hashtable<>();
+        removedConverters = ConcurrentHashMap.newKeySet();
+        resolvedConverters = new ConcurrentHashMap<>();
+        indentation = "\n";
     }
 
     /**
@@ -69,29 +118,7 @@ public class JsonSerializerOptions {
      * @return true if a suitable converter is found
      */
     public boolean hasConverter(TypeToken<?> typeToConvert) {
-        if (typeToConvert.getRawType().isPrimitive()) {
-            typeToConvert = new TypeToken<>(PrimitiveUtils.wrap(typeToConvert.getRawType()));
-        }
-
-        for (ArrayList<JsonConverter<?>> converters : customConverters.values()) {
-            for (JsonConverter<?> converter : converters) {
-                if (converter.canConvert(typeToConvert)) {
-                    return true;
-                }
-            }
-        }
-
-        if (mappedConverters.containsKey(typeToConvert)) {
-            return true;
-        }
-
-        for (JsonConverter<?> converter : defaultConverters) {
-            if (converter.canConvert(typeToConvert)) {
-                return true;
-            }
-        }
-
-        return false;
+        return (findConverter(typeToConvert) != null);
     }
 
     /**
@@ -101,31 +128,13 @@ public class JsonSerializerOptions {
      * @return {@code typeToConvert} converter
      */
     public JsonConverter<?> getConverter(TypeToken<?> typeToConvert) {
-        JsonConverter<?> outConverter = null;
-
-        if (typeToConvert.getRawType().isPrimitive()) {
-            typeToConvert = new TypeToken<>(PrimitiveUtils.wrap(typeToConvert.getRawType()));
-        }
+        JsonConverter<?> outConverter = findConverter(typeToConvert);
 
-        for (ArrayList<JsonConverter<?>> converters : customConverters.values()) {
-            for (JsonConverter<?> converter : converters) {
-                if (converter.canConvert(typeToConvert)) {
-                    return converter;
-                }
-            }
+        if (outConverter == null) {
+            throw new NoSuchElementException("No converter for '%s' is found".formatted(typeToConvert));
         }
 
-        if ((outConverter = mappedConverters.get(typeToConvert)) != null) {
-            return outConverter;
-        }
-
-        for (JsonConverter<?> converter : defaultConverters) {
-            if (converter.canConvert(typeToConvert)) {
-                return converter;
-            }
-        }
-
-        throw new NoSuchElementException("No converter for '%s' is found".formatted(typeToConvert));
+        return outConverter;
     }
 
     /**
@@ -142,11 +151,15 @@ public class JsonSerializerOptions {
             converterList.add(converter);
             customConverters.put(converter.getMyType(), converterList);
         }
+
+        removedConverters.remove(converter);
+        resolvedConverters.clear();
     }
 
     /**
-     * Removes the type and its corresponding converter. This method does nothing if
-     * the key does not exist.
+     * Removes the type and its corresponding converter from these options, other
+     * options are not affected. This method does nothing if the key does not
+     * exist.
      *
      * @param converterType the type that needs to be removed
      */
@@ -155,8 +168,70 @@ public class JsonSerializerOptions {
             return;
         }
 
-        defaultConverters.add(getConverter(converterType));
-        mappedConverters.remove(converterType);
+        removedConverters.add(getConverter(converterType));
+        resolvedConverters.clear();
+    }
+
+    /**
+     * Returns the converter of {@code typeToConvert}, or {@code null} if there is
+     * none. Resolved converters are cached by type until the converters change.
+     */
+    private JsonConverter<?> findConverter(TypeToken<?> typeToConvert) {
+        JsonConverter<?> outConverter = resolvedConverters.get(typeToConvert.getType());
+
+        if (outConverter == null) {
+            outConverter = resolveConverter(typeToConvert);
+
+            if (outConverter != null) {
+                resolvedConverters.put(typeToConvert.getType(), outConverter);
+            }
+        }
+
+        return outConverter;
+    }
+
+    /**
+     * Returns a line break followed by at least {@code length - 1} spaces, shared
+     * by the indented writers of these options.
+     */
+    String indentation(int length) {
+        String s = indentation;
+
+        if (s.length() < length) {
+            s = "\n" + " ".repeat(Math.max(2 * length, 64));
+            indentation = s;
+        }
+
+        return s;
+    }
+
+    private JsonConverter<?> resolveConverter(TypeToken<?> typeToConvert) {
+        JsonConverter<?> outConverter = null;
+
+        if (typeToConvert.getRawType().isPrimitive()) {
+            typeToConvert = new TypeToken<>(PrimitiveUtils.wrap(typeToConvert.getRawType()));
+        }
+
+        for (ArrayList<JsonConverter<?>> converters : customConverters.values()) {
+            for (JsonConverter<?> converter : converters) {
+                if (converter.canConvert(typeToConvert) && !removedConverters.contains(converter)) {
+                    return converter;
+                }
+            }
+        }
+
+        outConverter = mappedConverters.get(typeToConvert);
+        if (outConverter != null && !removedConverters.contains(outConverter)) {
+            return outConverter;
+        }
+
+        for (JsonConverter<?> converter : defaultConverters) {
+            if (converter.canConvert(typeToConvert) && !removedConverters.contains(converter)) {
+                return converter;
+            }
+        }
+
+        return null;
     }
 
     private static Queue<JsonConverter<?>> generateDefaultConverters() {
@@ -0,0 +1,214 @@
+/*
+ *
+ * Copyright (c) 2023 Tony Medhat
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jsonator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Supplies UTF-8 encoded JSON to {@link JsonLexer} in chunks.
+ */
+abstract class JsonSource implements Closeable {
+
+    /**
+     * Reads up to {@code length} bytes into {@code buffer}.
+     *
+     * @return number of bytes read, or -1 if the end of the source is reached
+     */
+    abstract int read(byte[] buffer, int offset, int length) throws IOException;
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    static JsonSource of(InputStream in) {
+        return new JsonSource() {
+            @Override
+            int read(byte[] buffer, int offset, int length) throws IOException {
+                return in.read(buffer, offset, length);
+            }
+        };
+    }
+
+    static JsonSource of(ByteBuffer source) {
+        ByteBuffer bytes = source.slice();
+
+        return new JsonSource() {
+            @Override
+            int read(byte[] buffer, int offset, int length) {
+                if (!bytes.hasRemaining()) {
+                    return -1;
+                }
+
+                int n = Math.min(length, bytes.remaining());
+                bytes.get(buffer, offset, n);
+                return n;
+            }
+        };
+    }
+
+    static JsonSource of(Reader reader) {
+        return new ReaderSource(reader);
+    }
+
+    static JsonSource of(Path path) throws IOException {
+        return new MappedFileSource(path, MappedFileSource.WINDOW_SIZE);
+    }
+
+    static JsonSource of(Path path, long windowSize) throws IOException {
+        return new MappedFileSource(path, windowSize);
+    }
+
+    /**
+     * Returns a source over the bytes {@code start} to {@code end} of an open
+     * file, the channel is left open when the source is closed.
+     */
+    static JsonSource of(FileChannel channel, long start, long end) {
+        return new MappedFileSource(channel, start, end, MappedFileSource.WINDOW_SIZE);
+    }
+
+    /**
+     * Maps a file into memory one window at a time, files larger than a single
+     * mapping (2 GB) are read as a sequence of windows.
+     */
+    private static class MappedFileSource extends JsonSource {
+
+        private static final long WINDOW_SIZE = 1L << 30;
+
+        private final FileChannel channel;
+        private final boolean isChannelOwner;
+        private final long end;
+        private final long windowSize;
+        private long windowOffset;
+        private MappedByteBuffer window;
+
+        MappedFileSource(Path path, long windowSize) throws IOException {
+            this(checkWindowSize(windowSize), FileChannel.open(path, StandardOpenOption.READ));
+        }
+
+        MappedFileSource(FileChannel channel, long start, long end, long windowSize) {
+            this(channel, start, end, checkWindowSize(windowSize), false);
+        }
+
+        private MappedFileSource(long windowSize, FileChannel channel) throws IOException {
+            this(channel, 0, channel.size(), windowSize, true);
+        }
+
+        private MappedFileSource(FileChannel channel, long start, long end, long windowSize, boolean isChannelOwner) {
+            this.channel = channel;
+            this.isChannelOwner = isChannelOwner;
+            this.windowSize = windowSize;
+            this.end = end;
+            windowOffset = start;
+        }
+
+        @Override
+        int read(byte[] buffer, int offset, int length) throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                if (windowOffset >= end) {
+                    return -1;
+                }
+
+                long mapSize = Math.min(windowSize, end - windowOffset);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowOffset, mapSize);
+                windowOffset += mapSize;
+            }
+
+            int n = Math.min(length, window.remaining());
+            window.get(buffer, offset, n);
+            return n;
+        }
+
+        private static long checkWindowSize(long windowSize) {
+            if (windowSize <= 0 || windowSize > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid window size '%d'".formatted(windowSize));
+            }
+
+            return windowSize;
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            if (isChannelOwner) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Encodes characters read from a {@code Reader} to UTF-8.
+     */
+    private static class ReaderSource extends JsonSource {
+
+        private static final int CHAR_BUFFER_SIZE = 4096;
+
+        private final Reader reader;
+        private final CharsetEncoder encoder;
+        private final CharBuffer chars;
+        private boolean isEndOfInput;
+        private boolean isFlushed;
+
+        ReaderSource(Reader reader) {
+            this.reader = reader;
+            encoder = StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            chars = CharBuffer.allocate(CHAR_BUFFER_SIZE).flip();
+        }
+
+        @Override
+        int read(byte[] buffer, int offset, int length) throws IOException {
+            ByteBuffer out = ByteBuffer.wrap(buffer, offset, length);
+
+            while (out.position() == offset && !isFlushed) {
+                if (!isEndOfInput) {
+                    chars.compact();
+                    isEndOfInput = (reader.read(chars) == -1);
+                    chars.flip();
+                }
+
+                CoderResult result = encoder.encode(chars, out, isEndOfInput);
+                if (result.isOverflow()) {
+                    break;
+                }
+
+                if (isEndOfInput && encoder.flush(out).isUnderflow()) {
+                    isFlushed = true;
+                }
+            }
+
+            int n = out.position() - offset;
+            return ((n == 0 && isFlushed) ? -1 : n);
+        }
+    }
+}
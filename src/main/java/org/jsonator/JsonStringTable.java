@@ -0,0 +1,165 @@
+/*
+ *
+ * Copyright (c) 2023 Tony Medhat
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jsonator;
+
+import java.util.Arrays;
+
+/**
+ * Canonicalization table for repeated strings such as object keys, each
+ * distinct string is materialized once per table and shared afterwards.
+ * <p>
+ * Entries are keyed by the raw UTF-8 bytes of the string token, a lookup
+ * hashes and compares the source bytes in place so a hit allocates nothing.
+ * The table is open addressed with linear probing and stops taking entries
+ * once it holds {@link #MAX_ENTRIES} strings, later strings are then simply
+ * not shared.
+ * <p>
+ * A table is not thread safe, it is meant to be owned by a single parser.
+ */
+final class JsonStringTable {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_ENTRIES = 8192;
+    // Larger tables are shrunk when cleared
+    private static final int MAX_RETAINED_CAPACITY = 1024;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private byte[][] keys;
+    private String[] values;
+    private int[] hashes;
+    private int count;
+
+    JsonStringTable() {
+        keys = new byte[INITIAL_CAPACITY][];
+        values = new String[INITIAL_CAPACITY];
+        hashes = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the hash of {@code length} bytes of {@code source} starting at
+     * {@code offset}.
+     */
+    static int hash(byte[] source, int offset, int length) {
+        long h = length;
+        int end = offset + length;
+        int i = offset;
+
+        for (; i + 8 <= end; i += 8) {
+            h = (h ^ JsonStructuralIndex.wordAt(source, i)) * HASH_MULTIPLIER;
+            h ^= (h >>> 29);
+        }
+
+        for (; i < end; ++i) {
+            h = (h ^ (source[i] & 0xFF)) * HASH_MULTIPLIER;
+        }
+
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Returns the string stored for the given bytes, or {@code null} if there is
+     * none.
+     *
+     * @param hash hash of the bytes as returned by {@link #hash}
+     */
+    String get(int hash, byte[] source, int offset, int length) {
+        int mask = keys.length - 1;
+
+        for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            byte[] key = keys[slot];
+
+            if (hashes[slot] == hash && key.length == length
+                    && Arrays.equals(key, 0, length, source, offset, offset + length)) {
+                return values[slot];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Stores {@code value} for the given bytes, which must not be in the table.
+     * Does nothing once the table is full.
+     *
+     * @param hash hash of the bytes as returned by {@link #hash}
+     */
+    void put(int hash, byte[] source, int offset, int length, String value) {
+        if (count >= MAX_ENTRIES) {
+            return;
+        }
+
+        // Keep the load factor at or below 1/2
+        if (2 * (count + 1) > keys.length) {
+            grow();
+        }
+
+        insert(hash, Arrays.copyOfRange(source, offset, offset + length), value);
+        count++;
+    }
+
+    /**
+     * Removes all strings from the table.
+     */
+    void clear() {
+        if (count == 0) {
+            return;
+        }
+
+        if (keys.length > MAX_RETAINED_CAPACITY) {
+            keys = new byte[INITIAL_CAPACITY][];
+            values = new String[INITIAL_CAPACITY];
+            hashes = new int[INITIAL_CAPACITY];
+        } else {
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+        }
+
+        count = 0;
+    }
+
+    private void grow() {
+        byte[][] oldKeys = keys;
+        String[] oldValues = values;
+        int[] oldHashes = hashes;
+
+        keys = new byte[oldKeys.length * 2][];
+        values = new String[oldKeys.length * 2];
+        hashes = new int[oldKeys.length * 2];
+
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] != null) {
+                insert(oldHashes[i], oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void insert(int hash, byte[] key, String value) {
+        int mask = keys.length - 1;
+        int slot = hash & mask;
+
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        hashes[slot] = hash;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ *
+ * Copyright (c) 2023 Tony Medhat
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jsonator;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Classifies 64 byte blocks of the input into bitmaps in the style of
+ * simdjson. Each block is loaded as eight {@code long} words and classified
+ * with SWAR (SIMD within a register) arithmetic, bit {@code i} of a bitmap
+ * describes byte {@code i} of the block.
+ * <p>
+ * Blocks must be indexed in input order starting outside of a string, the
+ * string and escape state is carried from one block to the next.
+ */
+final class JsonStructuralIndex {
+
+    static final int BLOCK_SIZE = 64;
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_VIEW = MethodHandles.byteArrayViewVarHandle(int[].class,
+            ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    // Gathers the high bit of every byte into the top byte
+    private static final long GATHER = 0x0102040810204080L;
+
+    /** Opening brackets, outside strings. */
+    long opens;
+    /** Closing brackets, outside strings. */
+    long closes;
+    /** Line feeds, outside strings. */
+    long newlines;
+
+    // State carried over from the previous block
+    private boolean isEscaped;
+    private long inString;
+
+    /**
+     * Indexes the block of {@link #BLOCK_SIZE} bytes starting at {@code offset}.
+     */
+    void index(byte[] buffer, int offset) {
+        long quote = 0;
+        long backslash = 0;
+        long open = 0;
+        long close = 0;
+        long newline = 0;
+
+        for (int i = 0; i < BLOCK_SIZE; i += Long.BYTES) {
+            long word = wordAt(buffer, offset + i);
+
+            // '[' and '{', ']' and '}' differ only in bit 5
+            long folded = word | (ONES * 0x20);
+
+            quote |= gather(equalBytes(word, '"')) << i;
+            backslash |= gather(equalBytes(word, '\\')) << i;
+            open |= gather(equalBytes(folded, '{')) << i;
+            close |= gather(equalBytes(folded, '}')) << i;
+            newline |= gather(equalBytes(word, '\n')) << i;
+        }
+
+        quote &= ~escapedBytes(backslash);
+
+        // Bytes from an opening quote up to, but excluding, its closing quote
+        long strings = prefixXor(quote) ^ inString;
+        inString = (strings >> 63);
+
+        long outside = ~strings;
+        opens = open & outside;
+        closes = close & outside;
+        newlines = newline & outside;
+    }
+
+    /**
+     * Clears the carried state, the next block is indexed as if it starts
+     * outside of a string.
+     */
+    void reset() {
+        isEscaped = false;
+        inString = 0;
+    }
+
+    /**
+     * Loads the 8 bytes starting at {@code offset} as a little endian word.
+     */
+    static long wordAt(byte[] buffer, int offset) {
+        return (long) LONG_VIEW.get(buffer, offset);
+    }
+
+    /**
+     * Loads the 4 bytes starting at {@code offset} as a little endian int.
+     */
+    static int intAt(byte[] buffer, int offset) {
+        return (int) INT_VIEW.get(buffer, offset);
+    }
+
+    /**
+     * Returns a word with the high bit of each byte set if that byte is equal to
+     * {@code c}.
+     */
+    static long equalBytes(long word, char c) {
+        long x = word ^ (ONES * c);
+        // No carry can cross a byte, every byte sum is below 0x100
+        long t = (x & LOW_BITS) + LOW_BITS;
+        return ~(t | x | LOW_BITS);
+    }
+
+    /**
+     * Returns the bytes escaped by a backslash, runs of backslashes escape each
+     * other in pairs.
+     */
+    private long escapedBytes(long backslash) {
+        long escaped = 0;
+
+        if (isEscaped) {
+            escaped = 1;
+            backslash &= ~1L;
+            isEscaped = false;
+        }
+
+        while (backslash != 0) {
+            long escape = backslash & -backslash;
+            long next = escape << 1;
+
+            if (next == 0) {
+                // Escaped byte starts the next block
+                isEscaped = true;
+                break;
+            }
+
+            escaped |= next;
+            backslash &= ~(escape | next);
+        }
+
+        return escaped;
+    }
+
+    /**
+     * Packs the high bit of each byte of {@code highBits} into the low 8 bits.
+     */
+    private static long gather(long highBits) {
+        return (((highBits >>> 7) * GATHER) >>> 56);
+    }
+
+    /**
+     * Returns a mask where bit {@code i} is the parity of the set bits in
+     * {@code 0..i}.
+     */
+    private static long prefixXor(long bits) {
+        bits ^= bits << 1;
+        bits ^= bits << 2;
+        bits ^= bits << 4;
+        bits ^= bits << 8;
+        bits ^= bits << 16;
+        bits ^= bits << 32;
+        return bits;
+    }
+}
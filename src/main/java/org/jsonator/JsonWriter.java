@@ -0,0 +1,682 @@
+/*
+ *
+ * Copyright (c) 2023 Tony Medhat
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jsonator;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Forward only writer of a JSON document, converters write values straight to
+ * the output without building a token queue or an intermediate string.
+ * <p>
+ * Objects are written between {@link #beginObject()} and {@link #endObject()},
+ * each member as {@link #name(String)} followed by its value. Arrays are
+ * written between {@link #beginArray()} and {@link #endArray()}. Separators,
+ * line breaks and indentation are written by the writer.
+ *
+ * <pre>
+ * writer.beginObject();
+ * writer.name("id");
+ * writer.value(7);
+ * writer.endObject();
+ * </pre>
+ * <p>
+ * Output is buffered, {@link #flush()} hands it to the underlying
+ * {@code Appendable}. Writers targeting an {@code OutputStream}, a
+ * {@code ByteBuffer} or a byte array encode UTF-8 while writing, into a byte
+ * buffer lent by the current thread.
+ *
+ * @author Tony Medhat
+ */
+public class JsonWriter implements Flushable {
+
+    // Container states, what was last written within each open container
+    private static final byte ARRAY_EMPTY = 0;
+    private static final byte ARRAY_NEXT = 1;
+    private static final byte OBJECT_EMPTY = 2;
+    private static final byte OBJECT_NEXT = 3;
+    private static final byte OBJECT_NAME = 4;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    // Escape sequence of each ASCII char, null if the char is written as is
+    private static final String[] ESCAPES = new String[128];
+
+    static {
+        for (int c = 0; c < 0x20; ++c) {
+            ESCAPES[c] = "\\u%04x".formatted(c);
+        }
+
+        ESCAPES['"'] = "\\\"";
+        ESCAPES['\\'] = "\\\\";
+        ESCAPES['\b'] = "\\b";
+        ESCAPES['\f'] = "\\f";
+        ESCAPES['\n'] = "\\n";
+        ESCAPES['\r'] = "\\r";
+        ESCAPES['\t'] = "\\t";
+    }
+
+    // Largest byte buffer kept by a thread between documents
+    private static final int MAX_RETAINED_SIZE = 1 << 20;
+
+    // Byte buffer of each thread, lent to one writer at a time
+    private static final ThreadLocal<byte[]> localBytes = new ThreadLocal<>();
+
+    // At most one target is set, none if bytes are collected into a byte array
+    private final Appendable out;
+    private final OutputStream stream;
+    private final ByteBuffer target;
+    private final JsonSerializerOptions options;
+    private final boolean isIndented;
+    private final int tabWidth;
+
+    // Output buffer, chars for an Appendable and UTF-8 bytes otherwise
+    private char[] chars;
+    private byte[] bytes;
+    private int count;
+    private byte[] states;
+    private int depth;
+    private final JsonNumberWriter numbers;
+
+    JsonWriter(Appendable out, JsonSerializerOptions options) {
+        this(out, null, null, options);
+        chars = new char[BUFFER_SIZE];
+    }
+
+    JsonWriter(OutputStream stream, JsonSerializerOptions options) {
+        this(null, stream, null, options);
+        bytes = borrowBytes();
+    }
+
+    JsonWriter(ByteBuffer target, JsonSerializerOptions options) {
+        this(null, null, target, options);
+        bytes = borrowBytes();
+    }
+
+    /**
+     * Creates a writer collecting UTF-8 bytes, read by {@link #toByteArray()}.
+     */
+    JsonWriter(JsonSerializerOptions options) {
+        this(null, null, null, options);
+        bytes = borrowBytes();
+    }
+
+    private JsonWriter(Appendable out, OutputStream stream, ByteBuffer target, JsonSerializerOptions options) {
+        this.out = out;
+        this.stream = stream;
+        this.target = target;
+        this.options = options;
+        isIndented = options.WriteIndented;
+        tabWidth = options.TabWidth;
+        states = new byte[16];
+        numbers = new JsonNumberWriter();
+    }
+
+    /**
+     * Writes the start of an object.
+     */
+    public void beginObject() {
+        begin('{', OBJECT_EMPTY);
+    }
+
+    /**
+     * Writes the end of the current object.
+     */
+    public void endObject() {
+        end('}', OBJECT_EMPTY, "object");
+    }
+
+    /**
+     * Writes the start of an array.
+     */
+    public void beginArray() {
+        begin('[', ARRAY_EMPTY);
+    }
+
+    /**
+     * Writes the end of the current array.
+     */
+    public void endArray() {
+        end(']', ARRAY_EMPTY, "array");
+    }
+
+    /**
+     * Writes the name of the next member of the current object.
+     *
+     * @param name member name
+     */
+    public void name(String name) {
+        beforeName();
+        writeQuoted(name);
+        afterName();
+    }
+
+    /**
+     * Writes a string value.
+     *
+     * @param value string
+     */
+    public void value(String value) {
+        beforeValue();
+        writeQuoted(value);
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value boolean
+     */
+    public void value(boolean value) {
+        beforeValue();
+        write(value ? JsonLexer.LITERAL_TRUE : JsonLexer.LITERAL_FALSE);
+    }
+
+    /**
+     * Writes an integral number value.
+     *
+     * @param value number
+     */
+    public void value(long value) {
+        beforeValue();
+        writeAscii(numbers.writeLong(value));
+    }
+
+    /**
+     * Writes a number value as the shortest decimal that rounds to it, in the
+     * format of {@link Double#toString(double)}.
+     *
+     * @param value number
+     */
+    public void value(double value) {
+        beforeValue();
+        writeAscii(numbers.writeDouble(value));
+    }
+
+    /**
+     * Writes a number value as the shortest decimal that rounds to it, in the
+     * format of {@link Float#toString(float)}.
+     *
+     * @param value number
+     */
+    public void value(float value) {
+        beforeValue();
+        writeAscii(numbers.writeFloat(value));
+    }
+
+    /**
+     * Writes {@code size} values of the current array, {@code values} writes the
+     * values from index {@code from} to {@code to}.
+     * <p>
+     * With {@link JsonSerializerOptions#ParallelSerialization} and at least
+     * {@link JsonSerializerOptions#ParallelSerializationThreshold} values, ranges
+     * of values are written to buffers of their own in parallel, then copied in
+     * order. The output is the same as written sequentially. {@code values} is
+     * called from several threads.
+     *
+     * @param size   number of values
+     * @param values writer of a range of values
+     * @throws JsonException if the current container is not an array
+     */
+    public void values(int size, ValueWriter values) {
+        if (depth == 0 || states[depth - 1] > ARRAY_NEXT) {
+            throw new JsonException("Unexpected values outside of an array");
+        }
+
+        if (options.ParallelSerialization && size >= options.ParallelSerializationThreshold) {
+            JsonParallelWriter.write(this, size, values);
+        } else {
+            values.write(this, 0, size);
+        }
+    }
+
+    /**
+     * Writes a JSON element in a single pass over its tree, a null element is
+     * written as a null value.
+     *
+     * @param element element
+     */
+    public void value(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            nullValue();
+        } else if (element.isJsonObject()) {
+            element.getAsJsonObject().write(this);
+        } else if (element.isJsonArray()) {
+            element.getAsJsonArray().write(this);
+        } else {
+            primitive(element.getAsJsonPrimitive().value);
+        }
+    }
+
+    /**
+     * Writes a null value.
+     */
+    public void nullValue() {
+        beforeValue();
+        write(JsonLexer.LITERAL_NULL);
+    }
+
+    /**
+     * Writes buffered output to the underlying target, which is flushed too if
+     * it is {@code Flushable}.
+     */
+    @Override
+    public void flush() {
+        if (isCollecting()) {
+            return;
+        }
+
+        drain();
+
+        try {
+            if (stream != null) {
+                stream.flush();
+            } else if (out instanceof Flushable) {
+                ((Flushable) out).flush();
+            }
+        } catch (IOException io) {
+            throw new JsonException("JSON can not be written, %s".formatted(io.getMessage()), io);
+        }
+    }
+
+    /**
+     * Returns a writer collecting the output of a range of values of the current
+     * array, to be copied by {@link #append(JsonWriter)}. Values of a range other
+     * than the first are preceded by a separator.
+     */
+    JsonWriter chunk(boolean isFirst) {
+        JsonWriter chunk = new JsonWriter(null, null, null, options);
+
+        if (bytes != null) {
+            chunk.bytes = new byte[BUFFER_SIZE];
+        } else {
+            chunk.chars = new char[BUFFER_SIZE];
+        }
+
+        chunk.states = Arrays.copyOf(states, states.length);
+        chunk.depth = depth;
+
+        if (!isFirst) {
+            chunk.states[depth - 1] = ARRAY_NEXT;
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Copies the output of a writer returned by {@link #chunk(boolean)}.
+     */
+    void append(JsonWriter chunk) {
+        if (chunk.depth != depth) {
+            throw new JsonException("Unterminated array or object");
+        }
+
+        states[depth - 1] = chunk.states[depth - 1];
+
+        int offset = 0;
+        while (offset < chunk.count) {
+            int capacity = (bytes != null) ? bytes.length : chars.length;
+            if (count == capacity) {
+                makeRoom();
+                continue;
+            }
+
+            int n = Math.min(chunk.count - offset, capacity - count);
+            if (bytes != null) {
+                System.arraycopy(chunk.bytes, offset, bytes, count, n);
+            } else {
+                System.arraycopy(chunk.chars, offset, chars, count, n);
+            }
+
+            count += n;
+            offset += n;
+        }
+    }
+
+    /**
+     * Returns the bytes collected by a writer without a target.
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, count);
+    }
+
+    /**
+     * Lends the byte buffer back to the current thread, the writer is not used
+     * afterwards.
+     */
+    void release() {
+        if (bytes != null && bytes.length <= MAX_RETAINED_SIZE) {
+            localBytes.set(bytes);
+        }
+
+        bytes = null;
+    }
+
+    private void primitive(Object value) {
+        if (value instanceof String) {
+            value((String) value);
+        } else if (value instanceof Character) {
+            value(value.toString());
+        } else if (value instanceof Boolean) {
+            value(((Boolean) value).booleanValue());
+        } else if (value instanceof Double) {
+            value(((Double) value).doubleValue());
+        } else if (value instanceof Float) {
+            value(((Float) value).floatValue());
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            value(((Number) value).longValue());
+        } else {
+            // Arbitrary precision numbers
+            beforeValue();
+            write(value.toString());
+        }
+    }
+
+    /**
+     * Writes buffered output to the underlying target.
+     */
+    private void drain() {
+        if (count == 0) {
+            return;
+        }
+
+        try {
+            if (stream != null) {
+                stream.write(bytes, 0, count);
+            } else if (target != null) {
+                target.put(bytes, 0, count);
+            } else if (out instanceof StringBuilder) {
+                ((StringBuilder) out).append(chars, 0, count);
+            } else if (out instanceof Writer) {
+                ((Writer) out).write(chars, 0, count);
+            } else {
+                out.append(CharBuffer.wrap(chars, 0, count));
+            }
+        } catch (IOException io) {
+            throw new JsonException("JSON can not be written, %s".formatted(io.getMessage()), io);
+        }
+
+        count = 0;
+    }
+
+    /**
+     * Makes room in the buffer, by draining it or by growing it when output is
+     * collected.
+     */
+    private void makeRoom() {
+        if (!isCollecting()) {
+            drain();
+        } else if (bytes != null) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        } else {
+            chars = Arrays.copyOf(chars, chars.length * 2);
+        }
+    }
+
+    private boolean isCollecting() {
+        return (out == null && stream == null && target == null);
+    }
+
+    private static byte[] borrowBytes() {
+        byte[] buffer = localBytes.get();
+
+        if (buffer == null) {
+            return new byte[BUFFER_SIZE];
+        }
+
+        // Taken until released, a nested writer allocates its own
+        localBytes.set(null);
+        return buffer;
+    }
+
+    private void begin(char bracket, byte state) {
+        beforeValue();
+        write(bracket);
+
+        if (depth == states.length) {
+            states = Arrays.copyOf(states, depth * 2);
+        }
+
+        states[depth++] = state;
+    }
+
+    private void end(char bracket, byte emptyState, String name) {
+        byte state = (depth != 0) ? states[depth - 1] : -1;
+
+        if (state != emptyState && state != emptyState + 1) {
+            throw new JsonException("Unexpected end-of-%s bracket".formatted(name));
+        }
+
+        depth--;
+
+        if (state != emptyState) {
+            newLine();
+        }
+
+        write(bracket);
+    }
+
+    private void beforeName() {
+        byte state = (depth != 0) ? states[depth - 1] : -1;
+
+        if (state == OBJECT_NEXT) {
+            write(',');
+        } else if (state != OBJECT_EMPTY) {
+            throw new JsonException("Unexpected member name outside of an object");
+        }
+
+        newLine();
+        states[depth - 1] = OBJECT_NAME;
+    }
+
+    private void afterName() {
+        write(':');
+
+        if (isIndented) {
+            write(' ');
+        }
+    }
+
+    private void beforeValue() {
+        if (depth == 0) {
+            return;
+        }
+
+        switch (states[depth - 1]) {
+            case ARRAY_EMPTY:
+                newLine();
+                states[depth - 1] = ARRAY_NEXT;
+                break;
+            case ARRAY_NEXT:
+                write(',');
+                newLine();
+                break;
+            case OBJECT_NAME:
+                states[depth - 1] = OBJECT_NEXT;
+                break;
+            default:
+                throw new JsonException("Expected member name before value");
+        }
+    }
+
+    /**
+     * Starts a new line indented to the current depth, in indented mode.
+     */
+    private void newLine() {
+        if (!isIndented) {
+            return;
+        }
+
+        int length = 1 + depth * tabWidth;
+        write(options.indentation(length), 0, length);
+    }
+
+    private void write(char c) {
+        if (bytes == null) {
+            if (count == chars.length) {
+                makeRoom();
+            }
+
+            chars[count++] = c;
+        } else if (c < 0x80) {
+            if (count == bytes.length) {
+                makeRoom();
+            }
+
+            bytes[count++] = (byte) c;
+        } else {
+            write(String.valueOf(c));
+        }
+    }
+
+    /**
+     * Writes {@code s} as a quoted JSON string. Runs of chars free of escapes are
+     * copied in bulk, only quotes, backslashes and control chars are escaped.
+     */
+    private void writeQuoted(String s) {
+        int length = s.length();
+        int start = 0;
+
+        write('"');
+        for (int i = 0; i < length; ++i) {
+            char c = s.charAt(i);
+            String escape = (c < 0x80) ? ESCAPES[c] : null;
+
+            if (escape != null) {
+                write(s, start, i);
+                write(escape);
+                start = i + 1;
+            }
+        }
+        write(s, start, length);
+        write('"');
+    }
+
+    private void write(String s) {
+        write(s, 0, s.length());
+    }
+
+    /**
+     * Copies the first {@code length} chars formatted by {@code numbers}.
+     */
+    private void writeAscii(int length) {
+        byte[] digits = numbers.bytes();
+
+        if (bytes != null) {
+            if (bytes.length - count < length) {
+                makeRoom();
+            }
+
+            System.arraycopy(digits, 0, bytes, count, length);
+            count += length;
+        } else {
+            if (chars.length - count < length) {
+                makeRoom();
+            }
+
+            for (int i = 0; i < length; ++i) {
+                chars[count++] = (char) digits[i];
+            }
+        }
+    }
+
+    private void write(String s, int start, int end) {
+        if (bytes != null) {
+            writeUtf8(s, start, end);
+            return;
+        }
+
+        int offset = start;
+
+        while (offset < end) {
+            if (count == chars.length) {
+                makeRoom();
+            }
+
+            int n = Math.min(end - offset, chars.length - count);
+            s.getChars(offset, offset + n, chars, count);
+            count += n;
+            offset += n;
+        }
+    }
+
+    /**
+     * Encodes chars {@code start} to {@code end} of {@code s} as UTF-8 into the
+     * byte buffer, unpaired surrogates are
+     * written as '?' like {@link String#getBytes}.
+     */
+    private void writeUtf8(String s, int start, int end) {
+        int i = start;
+
+        while (i < end) {
+            // Room for the longest encoding of a code point
+            if (bytes.length - count < 4) {
+                makeRoom();
+            }
+
+            int limit = bytes.length - 3;
+
+            while (i < end && count < limit) {
+                char c = s.charAt(i++);
+
+                if (c < 0x80) {
+                    bytes[count++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[count++] = (byte) (0xC0 | (c >> 6));
+                    bytes[count++] = (byte) (0x80 | (c & 0x3F));
+                } else if (!Character.isSurrogate(c)) {
+                    bytes[count++] = (byte) (0xE0 | (c >> 12));
+                    bytes[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[count++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i < end && Character.isLowSurrogate(s.charAt(i))) {
+                    int codePoint = Character.toCodePoint(c, s.charAt(i++));
+                    bytes[count++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    bytes[count++] = '?';
+                }
+            }
+        }
+    }
+
+    /**
+     * Writer of a range of values of an array.
+     */
+    @FunctionalInterface
+    public interface ValueWriter {
+
+        /**
+         * Writes the values from index {@code from}, inclusive, to {@code to},
+         * exclusive.
+         *
+         * @param writer writer of the values
+         * @param from   index of the first value
+         * @param to     index after the last value
+         */
+        void write(JsonWriter writer, int from, int to);
+    }
+}
@@ -2,6 +2,14 @@ package org.jsonator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -9,12 +17,15 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class JsonDeserializationTest {
     @Test
@@ -151,4 +162,523 @@ public class JsonDeserializationTest {
 
         Assertions.assertEquals(expected, actual);
     }
+
+    @Test
+    public void deserialize_Reader_shouldReturnJson() {
+        List<Integer> expected = new ArrayList<>();
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 10000; ++i) {
+            expected.add(i);
+            json.append(i == 0 ? "" : ", ").append(i);
+        }
+        json.append("]");
+
+        // InputStreamReader does not support mark/reset, and the document spans many buffer refills
+        InputStreamReader reader = new InputStreamReader(
+                new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+        List<Integer> actual = JsonSerializer.deserialize(reader, new TypeToken<ArrayList<Integer>>() {
+        });
+
+        Assertions.assertAll(
+                "Grouped Assertions of Readers",
+                () -> assertEquals(expected, actual),
+                () -> assertEquals(new ArrayList<Integer>(), JsonSerializer.deserialize(new StringReader("[]"),
+                        new TypeToken<ArrayList<Integer>>() {
+                        })),
+                () -> assertEquals(new TestNestedClass(), JsonSerializer.deserialize(
+                        new StringReader("{\"nestedClass\":{\"number\":0}}"), TestNestedClass.class)));
+    }
+
+    @Test
+    public void deserialize_bytes_shouldReturnJson() {
+        String expected = "héllo wörld € 😀";
+        byte[] json = ('"' + expected + '"').getBytes(StandardCharsets.UTF_8);
+        byte[] jsonWithBom = new byte[json.length + 3];
+        jsonWithBom[0] = (byte) 0xEF;
+        jsonWithBom[1] = (byte) 0xBB;
+        jsonWithBom[2] = (byte) 0xBF;
+        System.arraycopy(json, 0, jsonWithBom, 3, json.length);
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(json.length).put(json).flip();
+
+        Assertions.assertAll(
+                "Grouped Assertions of Bytes",
+                () -> assertEquals(expected, JsonSerializer.deserialize(json, String.class)),
+                () -> assertEquals(expected, JsonSerializer.deserialize(jsonWithBom, String.class)),
+                () -> assertEquals(expected, JsonSerializer.deserialize(ByteBuffer.wrap(json), String.class)),
+                () -> assertEquals(expected, JsonSerializer.deserialize(directBuffer, String.class)),
+                () -> assertEquals(expected,
+                        JsonSerializer.deserialize(new ByteArrayInputStream(json), String.class)),
+                () -> assertEquals(expected,
+                        JsonSerializer.deserialize(new StringReader('"' + expected + '"'), String.class)));
+    }
+
+    @Test
+    public void deserialize_Path_shouldReturnJson(@TempDir Path directory) throws IOException {
+        Path file = Files.writeString(directory.resolve("document.json"),
+                "{\"nestedClass\":{\"number\":1}, \"ints\": [1, 2, 3]}", StandardCharsets.UTF_8);
+
+        TestNestedClass expected = new TestNestedClass();
+        expected.nestedClass.number = 1;
+
+        Assertions.assertAll(
+                "Grouped Assertions of Paths",
+                () -> assertEquals(expected, JsonSerializer.deserialize(file, TestNestedClass.class)),
+                () -> assertEquals(3, new JsonObject().fromJson(file).get("ints").getAsJsonArray().size()),
+                () -> {
+                    // Windows smaller than a token, tokens are stitched across mappings
+                    try (JsonSource source = JsonSource.of(file, 3)) {
+                        JsonObject actual = JsonParser.parse(new JsonLexer(source)).getAsJsonObject();
+                        assertEquals(1, actual.get("nestedClass").getAsJsonObject().get("number")
+                                .getAsJsonPrimitive().getAsNumber().intValue());
+                        assertEquals(3, actual.get("ints").getAsJsonArray().size());
+                    }
+                });
+    }
+
+    @Test
+    public void lazy_JsonObject_shouldParseOnAccess() {
+        String json = "{\"route\": {\"host\": \"example.org\", \"port\": 8080}, \"body\": {\"a\": [1,, tru]}, "
+                + "\"items\": [{\"sku\": \"a-1\"}, [true, null], \"x]\"]}";
+        JsonObject actual = JsonObject.lazy(json);
+
+        Assertions.assertAll(
+                "Grouped Assertions of Lazy JsonObject",
+                () -> assertEquals("example.org", actual.get("route").getAsJsonObject().get("host")
+                        .getAsJsonPrimitive().getAsString()),
+                () -> assertEquals(8080, actual.get("route").getAsJsonObject().get("port")
+                        .getAsJsonPrimitive().getAsNumber().intValue()),
+                () -> assertEquals(3, actual.get("items").getAsJsonArray().size()),
+                () -> assertEquals("a-1", actual.get("items").getAsJsonArray().get(0).getAsJsonObject()
+                        .get("sku").getAsJsonPrimitive().getAsString()),
+                () -> Assertions.assertTrue(actual.get("items").getAsJsonArray().get(1).getAsJsonArray().get(1)
+                        .isJsonNull()),
+                () -> Assertions.assertThrows(JsonException.class, () -> actual.get("body").getAsJsonObject()
+                        .get("a").getAsJsonArray().size()),
+                () -> assertEquals(2, JsonArray.lazy("[[1], {}]").size()),
+                () -> Assertions.assertThrows(JsonException.class, () -> JsonObject.lazy("[1]")),
+                () -> Assertions.assertThrows(JsonException.class, () -> JsonObject.lazy("{\"a\": [1}")));
+    }
+
+    @Test
+    public void pushParser_chunks_shouldReturnJson() {
+        String json = "{\"name\": \"push \\\"parser\\\"\", \"values\": [-12.5e-1, 1234567890123, true, null, "
+                + "{}, []], \"nested\": {\"unicode\": \"\u00e9\u4e2d\", \"x\": false}}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        String expected = new JsonObject(json).toJson();
+
+        for (int chunkSize = 1; chunkSize <= bytes.length; ++chunkSize) {
+            JsonPushParser parser = new JsonPushParser();
+            for (int i = 0; i < bytes.length; i += chunkSize) {
+                parser.feed(ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i)));
+            }
+
+            assertEquals(expected, parser.finish().getAsJsonObject().toJson());
+        }
+
+        List<String> events = new ArrayList<>();
+        JsonPushParser parser = new JsonPushParser(new JsonPushParser.Handler() {
+            public void startObject() { events.add("{"); }
+            public void endObject() { events.add("}"); }
+            public void startArray() { events.add("["); }
+            public void endArray() { events.add("]"); }
+            public void key(String key) { events.add(key); }
+            public void value(JsonElement value) { events.add(value.toString()); }
+        });
+        parser.feed(ByteBuffer.wrap("[{\"a\": 1".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(List.of("[", "{", "a"), events);
+        parser.feed(ByteBuffer.wrap("0}]".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertNull(parser.finish());
+        assertEquals(List.of("[", "{", "a", "10", "}", "]"), events);
+
+        // Byte order mark and trailing comma parse as they do with JsonParser
+        byte[] marked = "\ufeff{\"a\": [1, {\"b\": 2,}, [3,],],}".getBytes(StandardCharsets.UTF_8);
+        String markedExpected = new JsonObject().fromJson(marked).toJson();
+        for (int chunkSize = 1; chunkSize <= marked.length; ++chunkSize) {
+            JsonPushParser markedParser = new JsonPushParser();
+            for (int i = 0; i < marked.length; i += chunkSize) {
+                markedParser.feed(marked, i, Math.min(chunkSize, marked.length - i));
+            }
+
+            assertEquals(markedExpected, markedParser.finish().getAsJsonObject().toJson());
+        }
+
+        for (String invalid : new String[] { "[1,,]", "[,]", "{\"a\" 1}", "[1] 2", "[1}", "\"abc", "[tru]", "[1", "{,}",
+                "\ufeff\ufeff[]" }) {
+            Assertions.assertThrows(JsonException.class, () -> {
+                JsonPushParser invalidParser = new JsonPushParser();
+                invalidParser.feed(ByteBuffer.wrap(invalid.getBytes(StandardCharsets.UTF_8)));
+                invalidParser.finish();
+            }, invalid);
+        }
+    }
+
+    @Test
+    public void lexer_skipValue_shouldSkipNestedValues() {
+        String filler = "\\\"}]{[".repeat(2000);
+        String json = "{\"skip\": {\"a\": \"%s\", \"b\": [1, [2, {}], \"\\\\\"],\n\"c\": {}}, \"keep\": \"%s\"}"
+                .formatted(filler, filler);
+
+        for (JsonLexer lexer : new JsonLexer[] { new JsonLexer(json),
+                new JsonLexer(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))) }) {
+            Assertions.assertEquals(JsonTokenType.OBJECT_START, lexer.nextToken());
+            Assertions.assertEquals(JsonTokenType.STRING, lexer.nextToken());
+            Assertions.assertEquals(JsonTokenType.COLON, lexer.nextToken());
+            Assertions.assertEquals(JsonTokenType.OBJECT_START, lexer.skipValue());
+            Assertions.assertTrue(lexer.tokenText().startsWith("{\"a\""));
+            Assertions.assertTrue(lexer.tokenText().endsWith("\"c\": {}}"));
+            Assertions.assertEquals(JsonTokenType.COMMA, lexer.nextToken());
+            Assertions.assertEquals(JsonTokenType.STRING, lexer.nextToken());
+            Assertions.assertEquals(JsonTokenType.COLON, lexer.nextToken());
+            Assertions.assertEquals(JsonTokenType.STRING, lexer.skipValue());
+            Assertions.assertEquals(filler.replace("\\\"", "\""), lexer.stringValue());
+            Assertions.assertEquals(JsonTokenType.OBJECT_END, lexer.nextToken());
+            Assertions.assertFalse(lexer.hasToken());
+        }
+
+        Assertions.assertThrows(JsonException.class, () -> new JsonLexer("[[\"]\"]").skipValue());
+    }
+
+    @Test
+    public void deserialize_double_shouldRoundToNearest() {
+        String[] numbers = { "0.1", "-0.0", "1e23", "8.41e21", "4.9e-324", "2.2250738585072011e-308",
+                "1.7976931348623157e308", "1.7976931348623159e308", "9007199254740993.0", "1e-400",
+                "123456789012345678901234567890e-10", "1.00000000000000011102230246251565404236316680908203125" };
+
+        for (String number : numbers) {
+            assertEquals(Double.parseDouble(number), JsonSerializer.deserialize(number, double.class), number);
+        }
+
+        assertEquals(Long.MIN_VALUE, JsonSerializer.deserialize("-9223372036854775808", long.class));
+        Assertions.assertThrows(NumberFormatException.class,
+                () -> JsonSerializer.deserialize("9223372036854775808", long.class));
+    }
+
+    @Test
+    public void deserialize_deepNesting_shouldRespectMaxDepth() {
+        int depth = 100_000;
+        String json = "[".repeat(depth) + "1" + "]".repeat(depth);
+
+        JsonElement element = JsonParser.parse(new JsonLexer(json), depth);
+        for (int i = 1; i < depth; ++i) {
+            element = element.getAsJsonArray().get(0);
+        }
+        assertEquals(1, element.getAsJsonArray().get(0).getAsJsonPrimitive().getAsNumber().intValue());
+
+        JsonSerializerOptions options = new JsonSerializerOptions();
+        options.MaxDepth = 2;
+        Assertions.assertAll(
+                "Grouped Assertions of Max Depth",
+                () -> Assertions.assertThrows(JsonException.class, () -> new JsonArray(json)),
+                () -> Assertions.assertThrows(JsonException.class,
+                        () -> JsonParser.parse(new JsonLexer(json), depth - 1)),
+                () -> assertEquals(1, JsonSerializer.deserialize("[[1]]", Integer[][].class, options)[0][0]),
+                () -> Assertions.assertThrows(JsonException.class,
+                        () -> JsonSerializer.deserialize("[[[1]]]", Integer[][][].class, options)),
+                () -> {
+                    JsonPushParser pushParser = new JsonPushParser(null, options);
+                    pushParser.feed(ByteBuffer.wrap("[[1]]".getBytes(StandardCharsets.UTF_8)));
+                    assertEquals("[[1]]", pushParser.finish().getAsJsonArray().toJson());
+                },
+                () -> Assertions.assertThrows(JsonException.class, () -> new JsonPushParser(null, options)
+                        .feed(ByteBuffer.wrap("[[[1]]]".getBytes(StandardCharsets.UTF_8)))),
+                () -> Assertions.assertThrows(JsonException.class, () -> new JsonPushParser()
+                        .feed(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)))));
+    }
+
+    @Test
+    public void readLines_records_shouldReturnStream(@TempDir Path directory) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 50_000; ++i) {
+            lines.append("{\"nestedClass\": {\"number\": ").append(i).append("}}\n");
+        }
+
+        Path file = directory.resolve("records.ndjson");
+        Files.writeString(file, lines);
+        TypeToken<TestNestedClass> type = new TypeToken<>(TestNestedClass.class);
+
+        try (Stream<TestNestedClass> records = JsonSerializer.readLines(new StringReader(lines.toString()), type)) {
+            assertEquals(50_000, records.count());
+        }
+
+        try (Stream<TestNestedClass> records = JsonSerializer.readLines(file, type)) {
+            Iterator<TestNestedClass> iterator = records.iterator();
+            assertEquals(0, iterator.next().nestedClass.number);
+            assertEquals(1, iterator.next().nestedClass.number);
+        }
+
+        try (Stream<TestNestedClass> records = JsonSerializer.readLines(file, type).parallel()) {
+            assertEquals((long) 49_999 * 50_000 / 2, records.mapToLong(r -> r.nestedClass.number).sum());
+        }
+
+        Assertions.assertThrows(JsonException.class,
+                () -> JsonSerializer.readLines(new StringReader("{}\n{\"a\": }\n"), type).count());
+    }
+
+    @Test
+    public void deserialize_parallelArray_shouldReturnJson() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 60_000; ++i) {
+            sb.append((i == 0) ? "" : ",\n").append("{\"nestedClass\": {\"number\": ").append(i).append("}}");
+        }
+        String records = sb.append("]").toString();
+        String mixed = "[\"[a,\", 12, -1.5e3, true, null, [], {}, " + records + ", \"}\", 1]";
+
+        // One-char strings are strings, not characters, as in sequential deserialization
+        StringBuilder strings = new StringBuilder("[");
+        for (int i = 0; i < 300_000; ++i) {
+            strings.append((i == 0) ? "" : ",").append((i % 2 == 0) ? "\"x\"" : "\"ab\"");
+        }
+        String stringRecords = strings.append("]").toString();
+        TypeToken<ArrayList<String>> stringListType = new TypeToken<>() {};
+
+        JsonSerializerOptions options = new JsonSerializerOptions();
+        options.ParallelParsing = true;
+
+        TestNestedClass[] array = JsonSerializer.deserialize(records, TestNestedClass[].class, options);
+        ArrayList<TestNestedClass> list = JsonSerializer.deserialize(records,
+                new TypeToken<ArrayList<TestNestedClass>>() {}, options);
+        byte[] mixedBytes = mixed.getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertAll(
+                "Grouped Assertions of Parallel Arrays",
+                () -> Assertions.assertArrayEquals(JsonSerializer.deserialize(records, TestNestedClass[].class), array),
+                () -> assertEquals(60_000, list.size()),
+                () -> assertEquals(59_999, list.get(59_999).nestedClass.number),
+                () -> Assertions.assertArrayEquals(JsonSerializer.deserialize(stringRecords, String[].class),
+                        JsonSerializer.deserialize(stringRecords, String[].class, options)),
+                () -> assertEquals(JsonSerializer.deserialize(stringRecords, stringListType),
+                        JsonSerializer.deserialize(stringRecords, stringListType, options)),
+                () -> assertEquals(new JsonArray().fromJson(mixedBytes).toJson(),
+                        new JsonArray().fromJson(mixedBytes, options).toJson()),
+                () -> Assertions.assertArrayEquals(array, JsonSerializer.deserialize(
+                        records.substring(0, records.length() - 1) + ",]", TestNestedClass[].class, options)),
+                () -> Assertions.assertThrows(JsonException.class, () -> JsonSerializer.deserialize(
+                        records.substring(0, records.length() - 1) + ",,]", TestNestedClass[].class, options)),
+                () -> Assertions.assertThrows(JsonException.class,
+                        () -> JsonSerializer.deserialize(records.replace("}},\n{", "}}\n{"), TestNestedClass[].class,
+                                options)));
+    }
+
+    @Test
+    public void parse_repeatedStrings_shouldShareInstances() {
+        byte[] json = "[{\"status\": \"active\"}, {\"status\": \"active\"}]".getBytes(StandardCharsets.UTF_8);
+
+        JsonSerializerOptions options = new JsonSerializerOptions();
+        options.CanonicalStrings = true;
+
+        JsonArray plain = new JsonArray().fromJson(json);
+        JsonArray canonical = new JsonArray().fromJson(json, options);
+
+        Assertions.assertAll(
+                "Grouped Assertions of Repeated Strings",
+                () -> Assertions.assertSame(plain.get(0).getAsJsonObject().keySet().iterator().next(),
+                        plain.get(1).getAsJsonObject().keySet().iterator().next()),
+                () -> Assertions.assertNotSame(plain.get(0).getAsJsonObject().get("status").getAsJsonPrimitive().getAsString(),
+                        plain.get(1).getAsJsonObject().get("status").getAsJsonPrimitive().getAsString()),
+                () -> Assertions.assertSame(canonical.get(0).getAsJsonObject().get("status").getAsJsonPrimitive().getAsString(),
+                        canonical.get(1).getAsJsonObject().get("status").getAsJsonPrimitive().getAsString()),
+                () -> assertEquals(plain.toJson(), canonical.toJson()));
+    }
+
+    @Test
+    public void deserialize_escapedString_shouldDecode() {
+        String json = "{\"a\\tb\": \"line\\nquote\\\" \\\\ \\/ \\u00e9\\uD83D\\uDE00 \u00fc\u20ac\\b\\f\\r\"}";
+        JsonPushParser pushParser = new JsonPushParser(null);
+        pushParser.feed(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertAll(
+                "Grouped Assertions of Escaped Strings",
+                () -> assertEquals("line\nquote\" \\ / \u00e9\uD83D\uDE00 \u00fc\u20ac\b\f\r",
+                        new JsonObject(json).get("a\tb").getAsJsonPrimitive().getAsString()),
+                () -> assertEquals("plain \u00fc", JsonSerializer.deserialize("\"plain \u00fc\"", String.class)),
+                () -> assertEquals(new JsonObject(json).toJson(), pushParser.finish().getAsJsonObject().toJson()),
+                () -> Assertions.assertThrows(JsonException.class,
+                        () -> JsonSerializer.deserialize("\"bad \\x\"", String.class)),
+                () -> Assertions.assertThrows(JsonException.class,
+                        () -> JsonSerializer.deserialize("\"bad \\u12\"", String.class)));
+    }
+
+    @Test
+    public void parse_projection_shouldSkipOtherValues() {
+        String json = "{\"user\": {\"id\": 7, \"name\": \"a\", \"tags\": [1, {\"x\": [}]]},"
+                + " \"items\": [{\"sku\": \"k1\", \"qty\": 2}, {\"qty\": 3}, {\"sku\": [1, 2]}],"
+                + " \"meta\": {\"sku\": \"ignored\"}, \"id\": 1,}";
+        JsonProjection projection = JsonProjection.of("user.id", "items[*].sku");
+        String records = "[{\"sku\": \"k1\", \"qty\": 2}, 5, {\"qty\": 3}]";
+
+        Assertions.assertAll(
+                "Grouped Assertions of Projections",
+                () -> assertEquals(new JsonObject("{\"user\": {\"id\": 7}, \"items\": [{\"sku\": \"k1\"}, {},"
+                        + " {\"sku\": [1, 2]}]}").toJson(), new JsonObject().fromJson(json, projection).toJson()),
+                () -> assertEquals(new JsonArray().fromJson("[{\"sku\": \"k1\"}, {}]").toJson(),
+                        new JsonArray().fromJson(records, JsonProjection.of("[*].sku")).toJson()),
+                () -> assertEquals(new JsonObject("{\"user\": {\"id\": 7, \"tags\": [1]}}").toJson(),
+                        new JsonObject().fromJson("{\"user\": {\"id\": 7, \"tags\": [1]}, \"x\": [{]}}",
+                                JsonProjection.of("user", "user.id")).toJson()),
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> JsonProjection.of("items[1]")),
+                () -> Assertions.assertThrows(JsonException.class,
+                        () -> new JsonObject().fromJson("{\"id\": 1 \"user\": {}}", projection)));
+    }
+
+    @Test
+    public void deserialize_reader_shouldMatchTree() {
+        String json = "{\"a\": [{\"nestedClass\": {\"number\": 7, \"extra\": [1, {\"x\": null}]},}, {}],"
+                + " \"b\": [], \"c\": null}";
+        TypeToken<HashMap<String, ArrayList<TestNestedClass>>> type = new TypeToken<>() {};
+        JsonSerializerOptions options = new JsonSerializerOptions();
+
+        HashMap<String, ArrayList<TestNestedClass>> streamed = JsonSerializer.deserialize(json, type);
+        Object tree = options.getConverter(type).deserialize(new JsonObject(json), type, options);
+
+        JsonReader reader = new JsonReader(new JsonLexer("[1, \"two\", [true, null], {\"k\": 2.5,}]"), 1000);
+        reader.beginArray();
+
+        Assertions.assertAll(
+                "Grouped Assertions of Reader Deserialization",
+                () -> assertEquals(tree, streamed),
+                () -> assertEquals(7, streamed.get("a").get(0).nestedClass.number),
+                () -> assertEquals(2, JsonSerializer.deserialize("[7, 2.9]", int[].class)[1]),
+                () -> assertEquals(1, reader.nextInt()),
+                () -> assertEquals("two", reader.nextString()),
+                () -> assertEquals(JsonTokenType.ARRAY_START, reader.peek()),
+                () -> reader.skipValue(),
+                () -> reader.beginObject(),
+                () -> assertEquals("k", reader.nextName()),
+                () -> Assertions.assertEquals(2.5, reader.nextDouble()),
+                () -> Assertions.assertFalse(reader.hasNext()),
+                () -> reader.endObject(),
+                () -> reader.endArray(),
+                () -> Assertions.assertThrows(JsonException.class,
+                        () -> JsonSerializer.deserialize("{\"nestedClass\": {} \"x\": 2}", TestNestedClass.class)),
+                () -> Assertions.assertThrows(JsonException.class,
+                        () -> JsonSerializer.deserialize("[1, 2", Integer[].class)));
+    }
+
+    @Test
+    public void deserialize_readerPool_shouldReuseReaders() {
+        JsonReaderPool pool = new JsonReaderPool(1);
+        JsonSerializerOptions options = new JsonSerializerOptions();
+        TypeToken<String[]> type = TypeToken.get(String[].class);
+        String json = "[\"café\", \"😀\", \"é\\n\"]";
+
+        JsonReader reader = pool.acquire(json, options);
+        String[] first = JsonSerializer.deserialize(reader, type, options);
+        reader.close();
+        JsonReader reacquired = pool.acquire(new byte[] { '[', ']' }, options);
+        String[] empty = JsonSerializer.deserialize(reacquired, type, options);
+        reacquired.close();
+
+        Assertions.assertAll(
+                "Grouped Assertions of Reader Pool Deserialization",
+                () -> Assertions.assertArrayEquals(new String[] { "café", "😀", "é\n" }, first),
+                () -> Assertions.assertSame(reader, reacquired),
+                () -> assertEquals(0, empty.length),
+                () -> Assertions.assertArrayEquals(first, pool.deserialize(json, type, options)),
+                () -> Assertions.assertArrayEquals(first, pool.deserialize(json.getBytes(StandardCharsets.UTF_8),
+                        type, options)),
+                () -> Assertions.assertArrayEquals(first, pool.deserialize(
+                        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), type, options)),
+                () -> Assertions.assertArrayEquals(first, JsonSerializer.deserialize(json, String[].class)),
+                () -> Assertions.assertThrows(JsonException.class, () -> pool.deserialize("[\"a\",", type, options)),
+                () -> Assertions.assertArrayEquals(first, pool.deserialize(json, type, options)));
+    }
+
+    @Test
+    public void parse_literals_shouldShareElements() {
+        JsonArray array = new JsonArray("[true, false, null, true, false, null]");
+
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 10000; ++i) {
+            json.append(i == 0 ? "" : ",").append((i % 2 == 0) ? "true" : "false");
+        }
+        json.append("]");
+
+        // Literals straddle buffer refills of the streamed source
+        Boolean[] streamed = JsonSerializer.deserialize(new StringReader(json.toString()), Boolean[].class);
+
+        Assertions.assertAll(
+                "Grouped Assertions of Literals",
+                () -> Assertions.assertSame(array.get(0), array.get(3)),
+                () -> Assertions.assertSame(array.get(1), array.get(4)),
+                () -> Assertions.assertSame(array.get(2), array.get(5)),
+                () -> assertEquals(new JsonPrimitive(false), array.get(1)),
+                () -> assertEquals(10000, streamed.length),
+                () -> assertEquals(true, streamed[9998]),
+                () -> assertEquals(false, streamed[9999]),
+                () -> Assertions.assertThrows(JsonException.class, () -> new JsonArray("[tru]")),
+                () -> Assertions.assertThrows(JsonException.class, () -> new JsonArray("[falsy]")),
+                () -> Assertions.assertThrows(JsonException.class, () -> new JsonArray("[nul")),
+                () -> Assertions.assertThrows(JsonException.class, () -> JsonSerializer.deserialize("nulL",
+                        Integer.class)));
+    }
+
+    @Test
+    public void deserialize_invalidNumber_shouldThrow() {
+        Assertions.assertAll(
+                "Grouped Assertions of Invalid Numbers",
+                () -> Assertions.assertThrows(JsonException.class, () -> JsonSerializer.deserialize("-", int.class)),
+                () -> Assertions.assertThrows(JsonException.class, () -> JsonSerializer.deserialize("1.", double.class)),
+                () -> Assertions.assertThrows(JsonException.class, () -> JsonSerializer.deserialize("1e+", double.class)),
+                () -> Assertions.assertThrows(JsonException.class, () -> JsonSerializer.deserialize("[-a]",
+                        Integer[].class)));
+    }
+
+    @Test
+    public void deserialize_mixedCaseNames_shouldMatchTree() {
+        String json = "{\"NestedClass\": {\"Number\": 5}}";
+        TypeToken<TestNestedClass> type = TypeToken.get(TestNestedClass.class);
+        JsonSerializerOptions options = new JsonSerializerOptions();
+
+        TestNestedClass streamed = JsonSerializer.deserialize(json, type);
+        Object tree = options.getConverter(type).deserialize(new JsonObject(json), type, options);
+
+        Assertions.assertAll(
+                "Grouped Assertions of Mixed-Case Names",
+                () -> assertEquals(5, streamed.nestedClass.number),
+                () -> assertEquals(tree, streamed),
+                () -> assertEquals(5, JsonSerializer.deserialize("{\"Number\": 5, \"\": 1}",
+                        TestClassDefaultCtor.class).number));
+    }
+
+    @Test
+    public void deserialize_manyDistinctKeys_shouldShareLaterKeys() {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 10000; ++i) {
+            json.append(i == 0 ? "" : ",").append("\"key").append(i).append("\":").append(i);
+        }
+        json.append("}");
+
+        TypeToken<HashMap<String, Integer>> mapType = new TypeToken<>() {};
+        TypeToken<ArrayList<HashMap<String, Integer>>> listType = new TypeToken<>() {};
+
+        HashMap<String, Integer> first = JsonSerializer.deserialize(json.toString(), mapType);
+        ArrayList<HashMap<String, Integer>> later = JsonSerializer.deserialize("[{\"later\": 1}, {\"later\": 2}]",
+                listType);
+
+        Assertions.assertAll(
+                "Grouped Assertions of Shared Keys",
+                () -> assertEquals(10000, first.size()),
+                () -> Assertions.assertSame(later.get(0).keySet().iterator().next(),
+                        later.get(1).keySet().iterator().next()));
+    }
+
+    @Test
+    public void parse_trailingComma_shouldBeTolerated() {
+        Assertions.assertAll(
+                "Grouped Assertions of Trailing Commas",
+                () -> assertEquals("[1,2]", new JsonArray("[1,2,]").toJson()),
+                () -> assertEquals("[[1],{\"a\":[2]}]", new JsonArray("[[1,],{\"a\":[2,],},]").toJson()),
+                () -> assertEquals("{\"a\":[1]}", new JsonObject("{\"a\":[1,],}").toJson()),
+                () -> assertEquals("[{\"sku\":\"k\"}]", new JsonArray().fromJson("[{\"sku\": \"k\", \"qty\": 1,},]",
+                        JsonProjection.of("[*].sku")).toJson()),
+                () -> assertEquals(List.of(1, 2), JsonSerializer.deserialize("[1,2,]",
+                        new TypeToken<ArrayList<Integer>>() {})),
+                () -> Assertions.assertArrayEquals(new int[] { 1 }, JsonSerializer.deserialize("[1,]", int[].class)),
+                () -> Assertions.assertThrows(JsonException.class,
+                        () -> JsonSerializer.deserialize("[1,,]", int[].class)),
+                () -> Assertions.assertThrows(JsonException.class, () -> new JsonArray("[,]")),
+                () -> Assertions.assertThrows(JsonException.class, () -> new JsonArray("[1,,]")),
+                () -> Assertions.assertThrows(JsonException.class, () -> new JsonObject("{\"a\":1,,}")));
+    }
 }
@@ -2,15 +2,24 @@ package org.jsonator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -140,4 +149,270 @@ public class JsonSerializationTest {
 
         Assertions.assertEquals(expected, actual);
     }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void serialize_writer_shouldStreamJson() {
+        TestNestedClass obj = new TestNestedClass();
+        obj.nestedClass.number = 1;
+        Map<String, int[]> map = new HashMap<>();
+        map.put("empty", new int[0]);
+        map.put("values", new int[] { 1, 2 });
+
+        JsonSerializerOptions indented = new JsonSerializerOptions();
+        indented.WriteIndented = true;
+
+        StringWriter out = new StringWriter();
+        JsonSerializer.serialize(obj, out, JsonSerializerOptions.DefaultOptions);
+
+        JsonSerializerOptions custom = new JsonSerializerOptions();
+        custom.addConverter(new JsonConverter<Integer>() {
+            @Override
+            public TypeToken<Integer> getMyType() {
+                return TypeToken.get(Integer.class);
+            }
+
+            @Override
+            public void serialize(JsonWriter writer, Object value, JsonSerializerOptions options) {
+                writer.value("#" + value);
+            }
+
+            @Override
+            public Object deserialize(JsonElement element, TypeToken<?> typeToConvert,
+                    JsonSerializerOptions options) {
+                return null;
+            }
+        });
+
+        // Tokens of the deprecated token queue
+        LinkedList<JsonToken> tokens = new LinkedList<>();
+        JsonSerializerOptions options = new JsonSerializerOptions();
+        options.getConverter(TypeToken.get(TestNestedClass.class)).serialize(tokens, obj, options);
+        StringBuilder joined = new StringBuilder();
+        tokens.forEach(t -> joined.append(t.value));
+
+        Assertions.assertAll(
+                "Grouped Assertions of Streamed Serialization",
+                () -> assertEquals(JsonSerializer.serialize(obj), out.toString()),
+                () -> assertEquals("{\n  \"nestedClass\": {\n    \"number\": 1\n  }\n}",
+                        JsonSerializer.serialize(obj, indented)),
+                () -> assertEquals("{\n  \"values\": [\n    1,\n    2\n  ],\n  \"empty\": []\n}",
+                        JsonSerializer.serialize(map, indented)),
+                () -> assertEquals("{\"nestedClass\":{\"number\":\"#1\"}}", JsonSerializer.serialize(obj, custom)),
+                () -> assertEquals(JsonSerializer.serialize(obj), joined.toString()),
+                () -> assertEquals(JsonTokenType.STRING, tokens.get(1).type),
+                () -> assertEquals(JsonTokenType.COLON, tokens.get(2).type));
+    }
+
+    @Test
+    public void serialize_bytes_shouldEncodeUtf8() {
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; i < 2000; ++i) {
+            strings.add((i % 2 == 0) ? "ascii " + i : "caf\u00e9 \u20ac \ud83d\ude00 " + i);
+        }
+        strings.add("\ud83d");
+
+        byte[] expected = JsonSerializer.serialize(strings).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        JsonSerializer.serialize(strings, stream, JsonSerializerOptions.DefaultOptions);
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length + 2).position(2);
+        JsonSerializer.serialize(strings, buffer, JsonSerializerOptions.DefaultOptions);
+
+        // Fills after several drains of the writer
+        ByteBuffer small = ByteBuffer.allocate(expected.length).position(2);
+        Assertions.assertThrows(BufferOverflowException.class,
+                () -> JsonSerializer.serialize(strings, small, JsonSerializerOptions.DefaultOptions));
+
+        Assertions.assertAll(
+                "Grouped Assertions of UTF-8 Serialization",
+                () -> Assertions.assertArrayEquals(expected, JsonSerializer.serializeToBytes(strings)),
+                () -> Assertions.assertArrayEquals(expected, JsonSerializer.serializeToBytes(strings)),
+                () -> Assertions.assertArrayEquals(expected, stream.toByteArray()),
+                () -> Assertions.assertArrayEquals(expected, Arrays.copyOfRange(buffer.array(), 2, buffer.position())),
+                () -> assertEquals(buffer.capacity(), buffer.position()),
+                () -> assertEquals("[1,2,3]", new String(JsonSerializer.serializeToBytes(new int[] { 1, 2, 3 }),
+                        StandardCharsets.UTF_8)),
+                () -> Assertions.assertThrows(BufferOverflowException.class, () -> JsonSerializer.serialize(strings,
+                        ByteBuffer.allocate(16), JsonSerializerOptions.DefaultOptions)),
+                () -> assertEquals(2, small.position()));
+    }
+
+    @Test
+    public void serialize_escapedString_shouldReturnValidJson() {
+        String raw = "say \"hi\"\\ \b\f\n\r\t \u0000\u001f / caf\u00e9";
+        String escaped = "\"say \\\"hi\\\"\\\\ \\b\\f\\n\\r\\t \\u0000\\u001f / caf\u00e9\"";
+        Map<String, String> map = new HashMap<>();
+        map.put("k\"ey", raw);
+
+        Assertions.assertAll(
+                "Grouped Assertions of Escaped Strings",
+                () -> assertEquals(escaped, JsonSerializer.serialize(raw)),
+                () -> assertEquals("\"\\\"\"", JsonSerializer.serialize('"')),
+                () -> assertEquals("{\"k\\\"ey\":" + escaped + "}", JsonSerializer.serialize(map)),
+                () -> assertEquals(raw, JsonSerializer.deserialize(JsonSerializer.serialize(raw), String.class)),
+                () -> Assertions.assertArrayEquals(escaped.getBytes(StandardCharsets.UTF_8),
+                        JsonSerializer.serializeToBytes(raw)));
+    }
+
+    @Test
+    public void serialize_deepIndented_shouldIndentEveryLevel() {
+        JsonSerializerOptions options = new JsonSerializerOptions();
+        options.WriteIndented = true;
+
+        ArrayList<Object> root = new ArrayList<>();
+        ArrayList<Object> list = root;
+        for (int i = 0; i < 40; ++i) {
+            ArrayList<Object> nested = new ArrayList<>();
+            list.add(nested);
+            list = nested;
+        }
+        list.add(1);
+
+        String compact = JsonSerializer.serialize(root);
+        String twoSpaces = JsonSerializer.serialize(root, options);
+        options.TabWidth = 4;
+        String fourSpaces = JsonSerializer.serialize(root, options);
+
+        Assertions.assertAll(
+                "Grouped Assertions of Deep Indentation",
+                () -> assertEquals(compact, twoSpaces.replaceAll("\\s", "")),
+                () -> Assertions.assertTrue(twoSpaces.contains("\n" + " ".repeat(82) + "1\n")),
+                () -> Assertions.assertTrue(fourSpaces.contains("\n" + " ".repeat(164) + "1\n")),
+                () -> Assertions.assertTrue(fourSpaces.endsWith("\n    ]\n]")));
+    }
+
+    @Test
+    public void serialize_numbers_shouldWriteShortestDecimal() {
+        long[] longs = { 0, -7, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE };
+        double[] doubles = { 0.1, -0.0, 1e7, 9999999.5, 0.001, 9.99e-4, 1e23, Double.MIN_VALUE, Double.MAX_VALUE };
+
+        Random random = new Random(7);
+        double[] randomDoubles = new double[1000];
+        float[] randomFloats = new float[1000];
+        for (int i = 0; i < randomDoubles.length; ++i) {
+            // Finite values only, NaN and infinities are not JSON
+            randomDoubles[i] = Double.longBitsToDouble(
+                    (random.nextLong() & ~(0x7FFL << 52)) | ((random.nextInt(2046) + 1L) << 52));
+            randomFloats[i] = Float.intBitsToFloat((random.nextInt() & ~(0xFF << 23)) | ((random.nextInt(254) + 1) << 23));
+        }
+
+        Assertions.assertAll(
+                "Grouped Assertions of Numbers",
+                () -> assertEquals("[0,-7,1234567890123,9223372036854775807,-9223372036854775808]",
+                        JsonSerializer.serialize(longs)),
+                () -> assertEquals("[0.1,-0.0,1.0E7,9999999.5,0.001,9.99E-4,1.0E23,4.9E-324,1.7976931348623157E308]",
+                        JsonSerializer.serialize(doubles)),
+                // Double.toString before JDK 19 writes 2.82879384806159008E17
+                () -> assertEquals("2.82879384806159E17", JsonSerializer.serialize(2.82879384806159E17)),
+                () -> assertEquals("[1.4E-45,3.4028235E38,0.3]", JsonSerializer.serialize(
+                        new float[] { Float.MIN_VALUE, Float.MAX_VALUE, 0.3f })),
+                () -> Assertions.assertArrayEquals(randomDoubles,
+                        JsonSerializer.deserialize(JsonSerializer.serialize(randomDoubles), double[].class)),
+                () -> Assertions.assertArrayEquals(randomFloats,
+                        JsonSerializer.deserialize(JsonSerializer.serialize(randomFloats), float[].class)));
+    }
+
+    @Test
+    public void serialize_jsonElement_shouldWriteInSinglePass() {
+        JsonSerializerOptions indented = new JsonSerializerOptions();
+        indented.WriteIndented = true;
+
+        String json = "{\"a\":[1,70000,5000000000,2.5,\"x\\\"y\\n\",\"c\",true,null,{\"b\":{}},[]]}";
+        String deep = "[".repeat(500) + "]".repeat(500);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new JsonObject("{\"caf\u00e9\":\"\u00e9\"}").toJson(bytes, JsonSerializerOptions.DefaultOptions);
+
+        Assertions.assertAll(
+                "Grouped Assertions of JSON Elements",
+                () -> assertEquals(json, new JsonObject(json).toJson()),
+                () -> assertEquals(json, JsonSerializer.serialize(new JsonObject(json))),
+                () -> assertEquals(deep, new JsonArray(deep).toJson()),
+                () -> assertEquals(JsonSerializer.serialize(new int[][] { { 1 }, {} }, indented),
+                        new JsonArray("[[1],[]]").toJson(indented)),
+                () -> assertEquals("{\"caf\u00e9\":\"\u00e9\"}", bytes.toString(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void serialize_parallel_shouldMatchSequential() throws Exception {
+        JsonSerializerOptions options = new JsonSerializerOptions();
+        JsonSerializerOptions parallel = new JsonSerializerOptions();
+        parallel.ParallelSerialization = true;
+        parallel.ParallelSerializationThreshold = 2000;
+        JsonSerializerOptions indented = new JsonSerializerOptions();
+        indented.WriteIndented = true;
+        JsonSerializerOptions parallelIndented = new JsonSerializerOptions();
+        parallelIndented.WriteIndented = true;
+        parallelIndented.ParallelSerialization = true;
+        parallelIndented.ParallelSerializationThreshold = 2000;
+
+        Random random = new Random(11);
+        long[] longs = new long[20000];
+        ArrayList<Object> list = new ArrayList<>();
+        LinkedList<String> strings = new LinkedList<>();
+        for (int i = 0; i < longs.length; ++i) {
+            longs[i] = random.nextLong();
+            strings.add("\u00e9\"" + i);
+
+            HashMap<String, Object> map = new HashMap<>();
+            map.put("values", new double[] { random.nextDouble(), i });
+            list.add((i % 2 == 0) ? map : new ArrayList<>(List.of("x" + i)));
+        }
+
+        Object[] values = { longs, list, strings, new Object[] { list, longs } };
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (Object value : values) {
+                assertEquals(JsonSerializer.serialize(value, options),
+                        pool.submit(() -> JsonSerializer.serialize(value, parallel)).get());
+                Assertions.assertArrayEquals(JsonSerializer.serializeToBytes(value, indented),
+                        pool.submit(() -> JsonSerializer.serializeToBytes(value, parallelIndented)).get());
+            }
+
+            JsonArray array = new JsonArray(JsonSerializer.serialize(list));
+            assertEquals(array.toJson(indented), pool.submit(() -> array.toJson(parallelIndented)).get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void removeConverter_shouldOnlyAffectItsOptions() {
+        JsonSerializerOptions options = new JsonSerializerOptions();
+        JsonSerializerOptions other = new JsonSerializerOptions();
+        TypeToken<UUID> uuidType = TypeToken.get(UUID.class);
+        JsonConverter<?> uuidConverter = other.getConverter(uuidType);
+        UUID uuid = UUID.randomUUID();
+
+        options.addConverter(new JsonConverter<Integer>() {
+            @Override
+            public TypeToken<Integer> getMyType() {
+                return TypeToken.get(Integer.class);
+            }
+
+            @Override
+            public void serialize(JsonWriter writer, Object value, JsonSerializerOptions options) {
+                writer.value("#" + value);
+            }
+
+            @Override
+            public Object deserialize(JsonElement element, TypeToken<?> typeToConvert,
+                    JsonSerializerOptions options) {
+                return null;
+            }
+        });
+        String custom = JsonSerializer.serialize(5, options);
+        options.removeConverter(TypeToken.get(Integer.class));
+        options.removeConverter(uuidType);
+
+        Assertions.assertAll(
+                "Grouped Assertions of Removed Converters",
+                () -> assertEquals("\"#5\"", custom),
+                () -> assertEquals("5", JsonSerializer.serialize(5, options)),
+                () -> Assertions.assertNotSame(uuidConverter, options.getConverter(uuidType)),
+                () -> Assertions.assertSame(uuidConverter, other.getConverter(uuidType)),
+                () -> Assertions.assertSame(uuidConverter, new JsonSerializerOptions().getConverter(uuidType)),
+                () -> assertEquals('"' + uuid.toString() + '"', JsonSerializer.serialize(uuid)));
+    }
 }